@@ -0,0 +1,127 @@
+package ru.practicum.shareit.bench;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemCommentView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Граф сущностей в памяти: у каждой вещи одно прошедшее и одно уже начавшееся бронирование и несколько комментариев
+class BenchData {
+    final User owner;
+    final List<User> bookers = new ArrayList<>();
+    final List<Item> items = new ArrayList<>();
+    final List<Booking> bookings = new ArrayList<>();
+    final List<Comment> comments = new ArrayList<>();
+    final List<ItemBookingView> bookingViews = new ArrayList<>();
+    final List<ItemCommentView> commentViews = new ArrayList<>();
+
+    BenchData(int itemsCount, int commentsPerItem) {
+        LocalDateTime now = LocalDateTime.now();
+        owner = new User(1L, "owner", "owner@mail.ru");
+        for (long id = 2; id <= 11; id++) {
+            bookers.add(new User(id, "booker" + id, "booker" + id + "@mail.ru"));
+        }
+        long bookingId = 1;
+        long commentId = 1;
+        for (long itemId = 1; itemId <= itemsCount; itemId++) {
+            Item item = new Item(itemId, "Дрель " + itemId, "Простая дрель " + itemId, true, owner,
+                    null, null, null);
+            User booker = bookers.get((int) (itemId % bookers.size()));
+            Booking last = new Booking(bookingId++, now.minusDays(3), now.minusDays(2), item, booker,
+                    BookingStatus.APPROVED);
+            // Следующее бронирование уже началось: вещь попадает в ветку пересчёта по запросу к бронированиям
+            Booking next = new Booking(bookingId++, now.minusHours(1), now.plusDays(1), item, booker,
+                    BookingStatus.APPROVED);
+            item.setLastBooking(last);
+            item.setNextBooking(next);
+            items.add(item);
+            bookings.add(last);
+            bookings.add(next);
+            bookingViews.add(new BookingView(last));
+            bookingViews.add(new BookingView(next));
+            for (int i = 0; i < commentsPerItem; i++) {
+                Comment comment = new Comment(commentId++, "Отличная дрель " + i, item, booker, now.minusDays(1));
+                comments.add(comment);
+                commentViews.add(new CommentView(comment));
+            }
+        }
+    }
+
+    private static class BookingView implements ItemBookingView {
+        private final Booking booking;
+
+        BookingView(Booking booking) {
+            this.booking = booking;
+        }
+
+        @Override
+        public Long getId() {
+            return booking.getId();
+        }
+
+        @Override
+        public Long getItemId() {
+            return booking.getItem().getId();
+        }
+
+        @Override
+        public Long getBookerId() {
+            return booking.getBooker().getId();
+        }
+
+        @Override
+        public LocalDateTime getStartDate() {
+            return booking.getStart();
+        }
+
+        @Override
+        public LocalDateTime getEndDate() {
+            return booking.getEnd();
+        }
+
+        @Override
+        public BookingStatus getStatus() {
+            return booking.getStatus();
+        }
+    }
+
+    private static class CommentView implements ItemCommentView {
+        private final Comment comment;
+
+        CommentView(Comment comment) {
+            this.comment = comment;
+        }
+
+        @Override
+        public Long getId() {
+            return comment.getId();
+        }
+
+        @Override
+        public Long getItemId() {
+            return comment.getItem().getId();
+        }
+
+        @Override
+        public String getText() {
+            return comment.getText();
+        }
+
+        @Override
+        public String getAuthorName() {
+            return comment.getAuthor().getName();
+        }
+
+        @Override
+        public LocalDateTime getCreated() {
+            return comment.getCreated();
+        }
+    }
+}
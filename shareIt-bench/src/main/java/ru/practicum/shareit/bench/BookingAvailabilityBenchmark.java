@@ -0,0 +1,173 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServerApp;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Проверка занятости вещи запросом в БД против интервального дерева BookingAvailabilityService в памяти.
+ * Одна операция — пакет из QUERIES проверок случайных интервалов (isFree*) или поиск свободных на выходные
+ * вещей из CANDIDATES (freeOnWeekend*). Занятость всех вещей загружается в память до замеров, ttl больше
+ * времени прогона. По умолчанию база H2 в памяти, PostgreSQL подключается переменными окружения сервера
+ * SPRING_DATASOURCE_URL, SPRING_DRIVER_CLASS_NAME, SPRING_DATASOURCE_USERNAME и SPRING_DATASOURCE_PASSWORD
+ * на пустую базу.
+ * Запуск: mvn -pl shareIt-bench exec:exec -Djmh.args="BookingAvailabilityBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BookingAvailabilityBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = 10_000;
+    private static final int QUERIES = 1_000;
+    private static final int CANDIDATES = 100;
+
+    @Param({"1000"})
+    private int items;
+    @Param({"500"})
+    private int bookingsPerItem;
+
+    // Один генератор с фиксированным зерном на наполнение и запросы: данные одинаковы от прогона к прогону
+    private final Random random = new Random(42);
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private BookingRepository bookingRepository;
+    private BookingAvailabilityService bookingAvailabilityService;
+    private long[][] queries;
+    private List<Long> candidates;
+    private LocalDateTime weekendStart;
+    private LocalDateTime weekendEnd;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServerApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+                        "--logging.level.org.springframework.transaction.interceptor=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.ru.practicum.shareit=WARN");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        seed();
+        bookingAvailabilityService = new BookingAvailabilityService(bookingRepository, items, Duration.ofDays(1));
+        bookingAvailabilityService.findFreeItemIds(LongStream.rangeClosed(1, items).boxed()
+                .collect(Collectors.toList()), BASE, BASE.plusHours(1), false);
+
+        queries = new long[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = random.nextInt(bookingsPerItem * 48);
+            queries[i] = new long[]{1 + random.nextInt(items), start, start + 1 + random.nextInt(72)};
+        }
+        candidates = LongStream.rangeClosed(1, Math.min(CANDIDATES, items)).boxed()
+                .collect(Collectors.toList());
+        weekendStart = BASE.plusDays(bookingsPerItem);
+        weekendEnd = weekendStart.plusDays(2);
+        if (!isFreeSql().equals(isFreeTree())) {
+            throw new IllegalStateException("Занятость в памяти расходится с БД");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Boolean> isFreeSql() {
+        List<Boolean> free = new ArrayList<>(QUERIES);
+        for (long[] query : queries) {
+            free.add(!bookingRepository.existsApprovedOverlap(query[0], BASE.plusHours(query[1]),
+                    BASE.plusHours(query[2]), 0));
+        }
+        return free;
+    }
+
+    @Benchmark
+    public List<Boolean> isFreeTree() {
+        List<Boolean> free = new ArrayList<>(QUERIES);
+        for (long[] query : queries) {
+            free.add(bookingAvailabilityService.isFree(query[0], BASE.plusHours(query[1]),
+                    BASE.plusHours(query[2]), false));
+        }
+        return free;
+    }
+
+    @Benchmark
+    public List<Long> freeOnWeekendSql() {
+        return candidates.stream()
+                .filter(itemId -> !bookingRepository.existsApprovedOverlap(itemId, weekendStart, weekendEnd, 0))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Long> freeOnWeekendTree() {
+        return bookingAvailabilityService.findFreeItemIds(candidates, weekendStart, weekendEnd, false);
+    }
+
+    // Бронирования вещи идут по 2 суток с паузами, подтверждённые чередуются с ожидающими и отклонёнными
+    private void seed() {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru')");
+        jdbcTemplate.update("insert into users (id, name, email) values (2, 'booker', 'booker@mail.ru')");
+        List<Object[]> itemRows = new ArrayList<>();
+        for (long id = 1; id <= items; id++) {
+            itemRows.add(new Object[]{id, "name" + id, "description" + id});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id) "
+                + "values (?, ?, ?, true, 1)", itemRows);
+        String[] statuses = {"APPROVED", "APPROVED", "WAITING", "REJECTED"};
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long bookingId = 1;
+        for (long itemId = 1; itemId <= items; itemId++) {
+            long hour = random.nextInt(48);
+            for (int i = 0; i < bookingsPerItem; i++) {
+                long start = hour;
+                hour += 1 + random.nextInt(47);
+                batch.add(new Object[]{bookingId++, Timestamp.valueOf(BASE.plusHours(start)),
+                        Timestamp.valueOf(BASE.plusHours(hour)), itemId, statuses[random.nextInt(statuses.length)]});
+                hour += random.nextInt(48);
+                if (batch.size() == BATCH_SIZE) {
+                    insertBookings(batch);
+                }
+            }
+        }
+        insertBookings(batch);
+    }
+
+    private void insertBookings(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, 2, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServerApp;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Импорт пачки пользователей, вещей и бронирований: по одной строке на вызов сервиса (как через POST /users и т.п.)
+ * против одного вызова пакетного метода (POST /users/batch и т.п.), где вставки уходят пакетами JDBC.
+ * Одна операция — импорт rows строк. По умолчанию база H2 в памяти, PostgreSQL подключается переменными окружения
+ * сервера SPRING_DATASOURCE_URL (с параметром reWriteBatchedInserts=true), SPRING_DRIVER_CLASS_NAME,
+ * SPRING_DATASOURCE_USERNAME и SPRING_DATASOURCE_PASSWORD.
+ * Запуск: mvn -pl shareIt-bench exec:exec -Djmh.args="BulkImportBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BulkImportBenchmark {
+    private static final int ITEMS_TO_BOOK = 100;
+
+    @Param({"per-row", "batch"})
+    private String mode;
+    @Param({"1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private long ownerId;
+    private long bookerId;
+    private long[] itemIds;
+    // Каждая операция добавляет новые строки: уникальные email и свои интервалы бронирований
+    private long operation;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServerApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+                        "--logging.level.org.springframework.transaction.interceptor=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.ru.practicum.shareit=WARN");
+        userService = context.getBean(UserService.class);
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        ownerId = userService.addUser(new UserDto("owner", "owner@mail.ru")).getId();
+        bookerId = userService.addUser(new UserDto("booker", "booker@mail.ru")).getId();
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ITEMS_TO_BOOK; i++) {
+            itemDtos.add(new ItemDto("Дрель " + i, "Простая дрель", true, null));
+        }
+        itemIds = itemService.addItems(ownerId, itemDtos).getRows().stream()
+                .mapToLong(BatchRowResultDto::getId)
+                .toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object importUsers() {
+        long prefix = operation++;
+        List<UserDto> userDtos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            userDtos.add(new UserDto("user" + i, "user" + prefix + "-" + i + "@mail.ru"));
+        }
+        if (mode.equals("batch")) {
+            return check(userService.addUsers(userDtos));
+        }
+        for (UserDto userDto : userDtos) {
+            userService.addUser(userDto);
+        }
+        return userDtos;
+    }
+
+    @Benchmark
+    public Object importItems() {
+        List<ItemDto> itemDtos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            itemDtos.add(new ItemDto("Дрель " + i, "Простая дрель", true, null));
+        }
+        if (mode.equals("batch")) {
+            return check(itemService.addItems(ownerId, itemDtos));
+        }
+        for (ItemDto itemDto : itemDtos) {
+            itemService.addItem(ownerId, itemDto);
+        }
+        return itemDtos;
+    }
+
+    @Benchmark
+    public Object importBookings() {
+        long day = operation++;
+        LocalDateTime start = LocalDateTime.now().plusYears(1).plusDays(day);
+        List<BookingDto> bookingDtos = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            bookingDtos.add(new BookingDto(null, itemIds[i % itemIds.length], start, start.plusHours(1),
+                    null, null, null));
+        }
+        if (mode.equals("batch")) {
+            return check(bookingService.addBookings(bookerId, bookingDtos));
+        }
+        for (BookingDto bookingDto : bookingDtos) {
+            bookingService.addBooking(bookerId, bookingDto);
+        }
+        return bookingDtos;
+    }
+
+    private BatchResultDto check(BatchResultDto result) {
+        if (result.getRejected() > 0) {
+            throw new IllegalStateException("Отклонено строк: " + result.getRejected());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemGetResponseDto;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.params.PageRequestParams;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Сборка списка вещей владельца в ItemServiceImpl без базы: группировка бронирований и комментариев по вещам
+ * и выбор последнего и следующего бронирования. Репозитории заменены заглушками, отдающими готовые данные,
+ * поэтому измеряется только код сервиса и мапперов.
+ * Запуск: mvn -pl shareIt-bench exec:exec -Djmh.args=ItemServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemServiceBenchmark {
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private ItemServiceImpl itemService;
+    private PageRequestParams pageRequestParams;
+    private long ownerId;
+
+    @Setup
+    public void setUp() {
+        BenchData data = new BenchData(pageSize, 3);
+        ownerId = data.owner.getId();
+        pageRequestParams = new PageRequestParams(0, pageSize, Sort.Direction.ASC, "id");
+        UserRepository userRepository = stub(UserRepository.class, Map.of(
+                "findById", args -> Optional.of(data.owner)));
+        ItemRepository itemRepository = stub(ItemRepository.class, Map.of(
+                "findByOwnerId", args -> new SliceImpl<>(data.items, (PageRequest) args[1], false)));
+        BookingRepository bookingRepository = stub(BookingRepository.class, Map.of(
+                "findLastAndNextApprovedByItemIdIn", args -> data.bookingViews));
+        CommentRepository commentRepository = stub(CommentRepository.class, Map.of(
+                "findLatestByItemIdIn", args -> data.commentViews));
+        UserLookup userLookup = new UserLookup(userRepository, new SimpleMeterRegistry(), 10, Duration.ofHours(1));
+        itemService = new ItemServiceImpl(itemRepository, userLookup, bookingRepository, commentRepository,
+                null, null, null);
+    }
+
+    @Benchmark
+    public List<ItemGetResponseDto> getAllItemsByUserId() {
+        return itemService.getAllItemsByUserId(ownerId, pageRequestParams);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> repository, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(repository.getClassLoader(), new Class<?>[]{repository},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> body = methods.get(method.getName());
+                    if (body == null) {
+                        throw new UnsupportedOperationException(method.toString());
+                    }
+                    return body.apply(args);
+                });
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServerApp;
+import ru.practicum.shareit.bench.data.DatasetGenerator;
+import ru.practicum.shareit.bench.data.DatasetSamplers;
+import ru.practicum.shareit.bench.data.DatasetSize;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена журналирования на списке бронирований арендатора: настройки сервера по умолчанию (SQL, параметры
+ * запросов и транзакции в консоль), профиль prod (асинхронная запись и выборка INFO-записей сервисов)
+ * и журнал, выключенный полностью, как нижняя граница.
+ * Консоль сервера перенаправляется в файл target/logging-benchmark-*.log, как вывод контейнера в файл журнала.
+ * Запуск: mvn -pl shareIt-bench exec:exec -Djmh.args=LoggingOverheadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class LoggingOverheadBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"default", "prod", "off"})
+    private String logging;
+
+    private PrintStream console;
+    private PrintStream logFile;
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private DatasetSamplers samplers;
+    private PageRequestParams bookingsPage;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        console = System.out;
+        logFile = new PrintStream(new FileOutputStream("target/logging-benchmark-" + logging + ".log"), true,
+                StandardCharsets.UTF_8);
+        System.setOut(logFile);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItServerApp.class)
+                .web(WebApplicationType.NONE);
+        if (logging.equals("prod")) {
+            builder.profiles("prod");
+        }
+        // В модуле свой logback.xml для замеров, он нашёлся бы раньше настроек сервера
+        List<String> args = new ArrayList<>(List.of("--logging.config=classpath:logback-spring.xml",
+                "--spring.jpa.show-sql=" + logging.equals("default"),
+                "--shareit.last-next-booking.roll-delay=86400000"));
+        if (logging.equals("off")) {
+            // Уровни, заданные в настройках сервера явно, не наследуют уровень root
+            for (String logger : List.of("root", "ru.practicum.shareit", "org.hibernate.SQL",
+                    "org.hibernate.type.descriptor.sql.BasicBinder", "org.springframework.orm.jpa",
+                    "org.springframework.orm.jpa.JpaTransactionManager", "org.springframework.transaction",
+                    "org.springframework.transaction.interceptor")) {
+                args.add("--logging.level." + logger + "=OFF");
+            }
+        }
+        context = builder.run(args.toArray(new String[0]));
+        // Без перекоса: у всех арендаторов примерно одинаково бронирований, разброс времени запроса не
+        // заслоняет цену журнала
+        DatasetSize size = new DatasetSize(1_000, 5_000, 500, 20_000, 1_000, 0.0, 42);
+        new DatasetGenerator(context.getBean(JdbcTemplate.class), size).generate();
+        samplers = new DatasetSamplers(size);
+        bookingService = context.getBean(BookingService.class);
+        bookingsPage = new PageRequestParams(0, PAGE_SIZE, Sort.Direction.DESC, "start", "id");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        System.setOut(console);
+        logFile.close();
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingByBookerId() {
+        return bookingService.getAllBookingByBookerId(samplers.booker(ThreadLocalRandom.current()), BookingState.ALL,
+                bookingsPage);
+    }
+}
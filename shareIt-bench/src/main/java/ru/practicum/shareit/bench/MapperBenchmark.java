@@ -0,0 +1,72 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.CommentMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemGetResponseDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразования сущностей в DTO на списках разного размера.
+ * Запуск: mvn -pl shareIt-bench -am install -DskipTests && mvn -pl shareIt-bench exec:exec -Djmh.args=MapperBenchmark
+ * Размер списка: -Djmh.args="MapperBenchmark -p size=1000".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private BenchData data;
+
+    @Setup
+    public void setUp() {
+        // size вещей и комментариев, бронирований вдвое больше
+        data = new BenchData(size, 1);
+    }
+
+    @Benchmark
+    public List<BookingDto> toBookingDtos() {
+        return BookingMapper.toBookingDtos(data.bookings);
+    }
+
+    @Benchmark
+    public List<ItemDto> toItemDtos() {
+        return ItemMapper.toItemDtos(data.items);
+    }
+
+    @Benchmark
+    public List<ItemGetResponseDto> toItemGetResponseDtos() {
+        return ItemMapper.toItemGetResponseDtos(data.items);
+    }
+
+    @Benchmark
+    public List<CommentDto> toCommentDtos() {
+        return CommentMapper.toCommentDtos(data.comments);
+    }
+
+    @Benchmark
+    public List<CommentDto> toCommentDtosFromViews() {
+        return CommentMapper.toCommentDtosFromViews(data.commentViews);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServerApp;
+import ru.practicum.shareit.bench.data.DatasetGenerator;
+import ru.practicum.shareit.bench.data.DatasetSamplers;
+import ru.practicum.shareit.bench.data.DatasetSize;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.LastNextBookingTracker;
+import ru.practicum.shareit.item.dto.ItemGetResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вызовы сервисов целиком — транзакция, Hibernate, SQL и маппинг — на базе, заполненной {@link DatasetGenerator}.
+ * По умолчанию база H2 в памяти, PostgreSQL подключается переменными окружения сервера
+ * SPRING_DATASOURCE_URL, SPRING_DRIVER_CLASS_NAME, SPRING_DATASOURCE_USERNAME и SPRING_DATASOURCE_PASSWORD
+ * (база должна быть пустой).
+ * Запуск: mvn -pl shareIt-bench exec:exec -Djmh.args="ServiceEndToEndBenchmark -p bookings=1000000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ServiceEndToEndBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"1000"})
+    private int users;
+    @Param({"10000"})
+    private int items;
+    @Param({"100000"})
+    private int bookings;
+    @Param({"20000"})
+    private int comments;
+    @Param({"1000"})
+    private int requests;
+    // Перекос распределений набора данных, см. DatasetGenerator
+    @Param({"1.0"})
+    private double skew;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private PageRequestParams itemsPage;
+    private PageRequestParams bookingsPage;
+    private DatasetSamplers samplers;
+    private long[] itemOwners;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServerApp.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.format_sql=false",
+                        "--logging.level.org.hibernate.SQL=OFF",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+                        "--logging.level.org.springframework.transaction.interceptor=OFF",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF",
+                        "--logging.level.ru.practicum.shareit=WARN",
+                        // Планировщик не должен пересчитывать вещи во время замера
+                        "--shareit.last-next-booking.roll-delay=86400000");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        DatasetSize size = new DatasetSize(users, items, requests, bookings, comments, skew, 42);
+        new DatasetGenerator(jdbcTemplate, size).generate();
+        samplers = new DatasetSamplers(size);
+        loadOwners(jdbcTemplate);
+        context.getBean(LastNextBookingTracker.class).rebuild();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemsPage = new PageRequestParams(0, PAGE_SIZE, Sort.Direction.ASC, "id");
+        bookingsPage = new PageRequestParams(0, PAGE_SIZE, Sort.Direction.DESC, "start", "id");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemGetResponseDto> getAllItemsByUserId() {
+        return itemService.getAllItemsByUserId(samplers.owner(ThreadLocalRandom.current()), itemsPage);
+    }
+
+    @Benchmark
+    public ItemGetResponseDto getItemById() {
+        long itemId = samplers.item(ThreadLocalRandom.current());
+        // Запрос от владельца, чтобы в ответ попадали последнее и следующее бронирование
+        return itemService.getItemById(itemOwners[(int) itemId], itemId);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingByBookerId() {
+        return bookingService.getAllBookingByBookerId(samplers.booker(ThreadLocalRandom.current()), BookingState.ALL,
+                bookingsPage);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingByOwnerId() {
+        return bookingService.getAllBookingByOwnerId(samplers.owner(ThreadLocalRandom.current()), BookingState.ALL,
+                bookingsPage);
+    }
+
+    private void loadOwners(JdbcTemplate jdbcTemplate) {
+        itemOwners = new long[items + 1];
+        jdbcTemplate.query("select id, owner_id from items", resultSet -> {
+            itemOwners[resultSet.getInt(1)] = resultSet.getLong(2);
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package ru.practicum.shareit.bench.data;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Массовая загрузка синтетических данных напрямую в таблицы сервера. Владельцы вещей, арендаторы,
+// бронируемые и комментируемые вещи выбираются по закону Ципфа. Бронирования одной вещи не пересекаются,
+// примерно половина из них в прошлом
+@Slf4j
+public class DatasetGenerator {
+    private static final List<String> CONDITIONS = List.of("в отличном состоянии", "в хорошем состоянии",
+            "с чехлом", "с инструкцией", "с зарядным устройством", "после ремонта", "почти без следов использования",
+            "с запасными частями", "для дачи", "для похода");
+    private static final List<String> COMMENTS = List.of("Всё отлично, рекомендую", "Хозяин пунктуальный",
+            "Вещь соответствует описанию", "Немного потёртая, но работает", "Спасибо, пригодилась",
+            "Взял бы ещё раз", "Пришлось подождать при передаче", "Лучше, чем ожидал");
+    private static final int BATCH_SIZE = 10_000;
+    // Шаг последовательностей users_seq, items_seq и bookings_seq из миграции V6
+    private static final int SEQUENCE_INCREMENT = 50;
+    // Доля вещей, добавленных в ответ на запрос
+    private static final double ITEMS_FOR_REQUESTS = 0.2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatasetSize size;
+    private final DatasetSamplers samplers;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, DatasetSize size) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.size = size;
+        this.samplers = new DatasetSamplers(size);
+        this.random = new Random(size.getSeed() + 1);
+    }
+
+    public void generate() {
+        long start = System.nanoTime();
+        log.info("Генерация набора данных: {}", size);
+        insertUsers();
+        insertRequests();
+        long[] owners = insertItems();
+        insertBookings(owners);
+        insertComments();
+        restartIdentities();
+        log.info("Набор данных загружен за {} с.", (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private void insertUsers() {
+        Batch batch = new Batch("insert into users (id, name, email) values (?, ?, ?)");
+        for (long id = 1; id <= size.getUsers(); id++) {
+            batch.add(id, "user" + id, "user" + id + "@mail.ru");
+        }
+        batch.flush();
+    }
+
+    private void insertRequests() {
+        Batch batch = new Batch("insert into requests (id, description, requestor_id, create_date) "
+                + "values (?, ?, ?, ?)");
+        for (long id = 1; id <= size.getRequests(); id++) {
+            batch.add(id, "Ищу " + samplers.word(random).toLowerCase() + " на несколько дней", samplers.booker(random),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60))));
+        }
+        batch.flush();
+    }
+
+    private long[] insertItems() {
+        long[] owners = new long[size.getItems() + 1];
+        Batch batch = new Batch("insert into items (id, name, description, is_available, owner_id, request_id) "
+                + "values (?, ?, ?, ?, ?, ?)");
+        for (int id = 1; id <= size.getItems(); id++) {
+            String word = samplers.word(random);
+            String condition = CONDITIONS.get(random.nextInt(CONDITIONS.size()));
+            Long requestId = size.getRequests() > 0 && random.nextDouble() < ITEMS_FOR_REQUESTS
+                    ? (long) random.nextInt(size.getRequests()) + 1 : null;
+            owners[id] = samplers.owner(random);
+            batch.add(id, word + " " + id, word + " " + condition,
+                    random.nextInt(10) != 0, owners[id], requestId);
+        }
+        batch.flush();
+        return owners;
+    }
+
+    private void insertBookings(long[] owners) {
+        // Сначала выбираются вещи всех бронирований: от их числа у вещи зависит, с какой даты начинается её
+        // расписание. Каждое бронирование занимает свой двухдневный интервал, поэтому пересечений нет
+        long[] itemIds = new long[size.getBookings()];
+        int[] bookingsPerItem = new int[size.getItems() + 1];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = samplers.item(random);
+            bookingsPerItem[(int) itemIds[i]]++;
+        }
+        int[] slots = new int[size.getItems() + 1];
+        Batch batch = new Batch("insert into bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "values (?, ?, ?, ?, ?, ?)");
+        for (int i = 0; i < itemIds.length; i++) {
+            int itemId = (int) itemIds[i];
+            LocalDateTime start = now.minusDays(bookingsPerItem[itemId])
+                    .plusDays(2L * slots[itemId]++)
+                    .plusHours(random.nextInt(12));
+            LocalDateTime end = start.plusDays(1).plusHours(random.nextInt(12));
+            long bookerId = samplers.booker(random);
+            if (bookerId == owners[itemId]) {
+                bookerId = bookerId % size.getUsers() + 1;
+            }
+            batch.add(i + 1, Timestamp.valueOf(start), Timestamp.valueOf(end), itemId, bookerId, status());
+        }
+        batch.flush();
+    }
+
+    private void insertComments() {
+        Batch batch = new Batch("insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)");
+        for (long id = 1; id <= size.getComments(); id++) {
+            batch.add(id, COMMENTS.get(random.nextInt(COMMENTS.size())),
+                    samplers.item(random), samplers.booker(random),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60))));
+        }
+        batch.flush();
+    }
+
+    private String status() {
+        int value = random.nextInt(20);
+        if (value < 16) {
+            return "APPROVED";
+        } else if (value < 18) {
+            return "WAITING";
+        } else if (value < 19) {
+            return "REJECTED";
+        }
+        return "CANCELED";
+    }
+
+    // ИД вставлены явно, поэтому счётчики IDENTITY и последовательности сдвигаются за них,
+    // иначе сервис не сможет добавлять записи
+    private void restartIdentities() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        // Пользователи, вещи и бронирования получают ИД только из своих последовательностей, identity у них нет
+        for (String table : List.of("requests", "comments")) {
+            long nextId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from " + table, Long.class);
+            if ("PostgreSQL".equals(database)) {
+                jdbcTemplate.queryForObject("select setval(pg_get_serial_sequence(?, 'id'), ?, false)",
+                        Long.class, table, nextId);
+            } else {
+                jdbcTemplate.execute("alter table " + table + " alter column id restart with " + nextId);
+            }
+        }
+        // pooled-оптимизатор считает значение последовательности верхней границей блока из SEQUENCE_INCREMENT ИД
+        for (String table : List.of("users", "items", "bookings")) {
+            long nextValue = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class)
+                    + SEQUENCE_INCREMENT;
+            if ("PostgreSQL".equals(database)) {
+                jdbcTemplate.queryForObject("select setval(?, ?, false)", Long.class, table + "_seq", nextValue);
+            } else {
+                jdbcTemplate.execute("alter sequence " + table + "_seq restart with " + nextValue);
+            }
+        }
+    }
+
+    private class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+
+        Batch(String sql) {
+            this.sql = sql;
+        }
+
+        void add(Object... row) {
+            rows.add(row);
+            if (rows.size() == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.bench.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Размер синтетического набора данных; одни и те же параметры нужны генератору и нагрузочному тесту,
+// чтобы тест обращался к существующим пользователям
+@Getter
+@AllArgsConstructor
+public class DatasetSize {
+    private final int users;
+    private final int items;
+    private final int requests;
+    private final int bookings;
+    private final int comments;
+    // Показатель распределения Ципфа: 0 — равномерно, чем больше, тем сильнее перекос к популярным
+    private final double skew;
+    private final long seed;
+
+    public static DatasetSize fromSystemProperties() {
+        return new DatasetSize(
+                Integer.getInteger("dataset.users", 10_000),
+                Integer.getInteger("dataset.items", 50_000),
+                Integer.getInteger("dataset.requests", 5_000),
+                Integer.getInteger("dataset.bookings", 500_000),
+                Integer.getInteger("dataset.comments", 100_000),
+                Double.parseDouble(System.getProperty("dataset.skew", "1.0")),
+                Long.getLong("dataset.seed", 42));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("пользователей %d, вещей %d, запросов %d, бронирований %d, комментариев %d, "
+                + "перекос %.2f", users, items, requests, bookings, comments, skew);
+    }
+}
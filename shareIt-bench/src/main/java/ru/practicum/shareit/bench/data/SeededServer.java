@@ -0,0 +1,63 @@
+package ru.practicum.shareit.bench.data;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServerApp;
+import ru.practicum.shareit.booking.service.LastNextBookingTracker;
+
+/**
+ * Сервер ShareIt, заполненный синтетическим набором данных, для нагрузочного теста {@code HttpLoadTest}.
+ * Данные загружаются после миграций и до готовности приложения, так что поисковый индекс в памяти
+ * строится уже по ним. По умолчанию база H2 в памяти, порт сервера 8090.
+ * Запуск: mvn -pl shareIt-bench -am install -DskipTests && mvn -pl shareIt-bench exec:java@seed
+ * Размер: -Ddataset.users, -Ddataset.items, -Ddataset.requests, -Ddataset.bookings, -Ddataset.comments,
+ * перекос -Ddataset.skew (по умолчанию 1.0), зерно -Ddataset.seed.
+ * Чтобы заполнить пустую базу PostgreSQL из docker-compose и выйти, задайте переменные SPRING_DATASOURCE_URL
+ * (jdbc:postgresql://localhost:6541/shareit), SPRING_DRIVER_CLASS_NAME, SPRING_DATASOURCE_USERNAME,
+ * SPRING_DATASOURCE_PASSWORD и -Ddataset.exit=true.
+ */
+public class SeededServer {
+    public static void main(String[] args) {
+        boolean exit = Boolean.getBoolean("dataset.exit");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServerApp.class)
+                .web(exit ? WebApplicationType.NONE : WebApplicationType.SERVLET)
+                .listeners(new Seeder(DatasetSize.fromSystemProperties()))
+                .run(withQuietLogging(args));
+        if (exit) {
+            context.close();
+        }
+    }
+
+    // Журнал SQL сервера по умолчанию включён и сам становится узким местом под нагрузкой
+    private static String[] withQuietLogging(String[] args) {
+        String[] quiet = {"--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+                "--logging.level.org.springframework.transaction.interceptor=OFF",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=OFF"};
+        String[] result = new String[quiet.length + args.length];
+        System.arraycopy(quiet, 0, result, 0, quiet.length);
+        System.arraycopy(args, 0, result, quiet.length, args.length);
+        return result;
+    }
+
+    private static class Seeder implements ApplicationListener<ApplicationStartedEvent> {
+        private final DatasetSize size;
+
+        Seeder(DatasetSize size) {
+            this.size = size;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationStartedEvent event) {
+            ConfigurableApplicationContext context = event.getApplicationContext();
+            new DatasetGenerator(context.getBean(JdbcTemplate.class), size).generate();
+            context.getBean(LastNextBookingTracker.class).rebuild();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.bench.data;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Выбор ИД от 1 до n по закону Ципфа. Ранги перемешаны, чтобы популярные вещи, активные арендаторы
+// и крупные владельцы не оказывались одними и теми же первыми ИД
+public class ZipfSampler {
+    private final double[] cumulative;
+    private final long[] idByRank;
+
+    public ZipfSampler(int n, double skew, Random random) {
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, skew);
+            cumulative[rank - 1] = sum;
+        }
+        idByRank = new long[n];
+        for (int i = 0; i < n; i++) {
+            idByRank[i] = i + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long id = idByRank[i];
+            idByRank[i] = idByRank[j];
+            idByRank[j] = id;
+        }
+    }
+
+    public long next(Random random) {
+        double value = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, value);
+        return idByRank[index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1)];
+    }
+}
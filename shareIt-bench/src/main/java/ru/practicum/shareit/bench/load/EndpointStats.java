@@ -0,0 +1,65 @@
+package ru.practicum.shareit.bench.load;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Итог по эндпоинту: пропускная способность по успешным ответам, перцентили задержки в мс и ошибки по кодам
+@Getter
+public class EndpointStats {
+    static final String HEADER = String.format("%-16s %9s %9s %9s %9s %9s %9s %9s  %s",
+            "endpoint", "ok", "req/s", "p50", "p90", "p99", "p99.9", "max", "errors");
+    static final String CSV_HEADER = "endpoint,ok,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,errors";
+
+    private final String endpoint;
+    private final int ok;
+    private final double throughput;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+    private final Map<Integer, Integer> errors;
+
+    EndpointStats(String endpoint, LatencyRecorder recorder, Duration duration) {
+        long[] latencies = recorder.sortedLatencies();
+        this.endpoint = endpoint;
+        this.ok = latencies.length;
+        this.throughput = latencies.length * 1_000_000_000.0 / duration.toNanos();
+        this.p50 = percentile(latencies, 0.5);
+        this.p90 = percentile(latencies, 0.9);
+        this.p99 = percentile(latencies, 0.99);
+        this.p999 = percentile(latencies, 0.999);
+        this.max = latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1_000_000.0;
+        this.errors = recorder.getErrors();
+    }
+
+    String toCsv() {
+        return String.format(Locale.ROOT, "%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f,%s", endpoint, ok, throughput,
+                p50, p90, p99, p999, max, errorsText(" "));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-16s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s", endpoint, ok,
+                throughput, p50, p90, p99, p999, max, errorsText(", "));
+    }
+
+    // Код -1 — ошибка соединения или таймаут
+    private String errorsText(String delimiter) {
+        return errors.entrySet().stream()
+                .map(error -> (error.getKey() == LatencyRecorder.IO_ERROR ? "io" : error.getKey()) + ":"
+                        + error.getValue())
+                .collect(Collectors.joining(delimiter));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))] / 1_000_000.0;
+    }
+}
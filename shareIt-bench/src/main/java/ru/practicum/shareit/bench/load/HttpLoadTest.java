@@ -0,0 +1,198 @@
+package ru.practicum.shareit.bench.load;
+
+import ru.practicum.shareit.bench.data.DatasetSamplers;
+import ru.practicum.shareit.bench.data.DatasetSize;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Нагрузочный тест шлюза по HTTP: {@code load.concurrency} клиентов без пауз отправляют запросы
+ * к спискам вещей, поиску, бронированиям арендатора и владельца и запросам других пользователей.
+ * Пользователи и слова поиска выбираются по тем же распределениям, что и в наборе данных {@code SeededServer},
+ * поэтому параметры -Ddataset.* должны совпадать с заполнением. Работает без сети и внешних инструментов.
+ * Запуск: сервер (mvn -pl shareIt-bench exec:java@seed), шлюз (java -jar shareIt-gateway/target/*.jar),
+ * затем mvn -pl shareIt-bench exec:java@load
+ * Параметры: -Dload.url (по умолчанию http://localhost:8080), -Dload.concurrency (50),
+ * -Dload.warmup и -Dload.duration в секундах (10 и 60),
+ * -Dload.mix — доли эндпоинтов (items:20,search:30,bookings:20,bookings-owner:15,requests-all:15),
+ * -Dload.report — CSV с результатами (target/load-report.csv).
+ * Ограничение частоты запросов шлюза отвечает 429 самым активным пользователям; чтобы мерить пропускную
+ * способность, запускайте шлюз с --shareit.admission.enabled=false.
+ */
+public class HttpLoadTest {
+    private static final String DEFAULT_MIX = "items:20,search:30,bookings:20,bookings-owner:15,requests-all:15";
+    private static final String[] STATES = {"ALL", "ALL", "ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final int PAGE_SIZE = 10;
+
+    private final URI baseUri;
+    private final DatasetSamplers samplers;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private int totalWeight;
+
+    public HttpLoadTest(URI baseUri, DatasetSamplers samplers, String mix) {
+        this.baseUri = baseUri;
+        this.samplers = samplers;
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            int weight = Integer.parseInt(nameAndWeight[1]);
+            if (weight > 0) {
+                endpoints.add(new Endpoint(nameAndWeight[0], weight, requests(nameAndWeight[0])));
+                totalWeight += weight;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        DatasetSize size = DatasetSize.fromSystemProperties();
+        HttpLoadTest loadTest = new HttpLoadTest(URI.create(System.getProperty("load.url", "http://localhost:8080")),
+                new DatasetSamplers(size), System.getProperty("load.mix", DEFAULT_MIX));
+        int concurrency = Integer.getInteger("load.concurrency", 50);
+        Duration warmup = Duration.ofSeconds(Long.getLong("load.warmup", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 60));
+        System.out.printf("Нагрузка на %s: %d клиентов, прогрев %d с, замер %d с; %s%n", loadTest.baseUri,
+                concurrency, warmup.getSeconds(), duration.getSeconds(), size);
+
+        List<EndpointStats> stats = loadTest.run(concurrency, warmup, duration);
+
+        System.out.println(EndpointStats.HEADER);
+        stats.forEach(System.out::println);
+        Path report = Path.of(System.getProperty("load.report", "target/load-report.csv"));
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(report, StandardCharsets.UTF_8))) {
+            writer.println(EndpointStats.CSV_HEADER);
+            stats.forEach(endpointStats -> writer.println(endpointStats.toCsv()));
+        }
+        System.out.println("Результаты сохранены в " + report.toAbsolutePath());
+    }
+
+    public List<EndpointStats> run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        ExecutorService executorService = Executors.newFixedThreadPool(concurrency);
+        List<Future<List<LatencyRecorder>>> futures = new ArrayList<>();
+        for (int client = 0; client < concurrency; client++) {
+            long seed = client;
+            futures.add(executorService.submit(() -> runClient(new Random(seed), measureFrom, measureTo)));
+        }
+        executorService.shutdown();
+        List<EndpointStats> stats = new ArrayList<>();
+        List<List<LatencyRecorder>> perClient = new ArrayList<>();
+        for (Future<List<LatencyRecorder>> future : futures) {
+            perClient.add(future.get());
+        }
+        for (int i = 0; i < endpoints.size(); i++) {
+            LatencyRecorder merged = new LatencyRecorder();
+            for (List<LatencyRecorder> recorders : perClient) {
+                merged.addAll(recorders.get(i));
+            }
+            stats.add(new EndpointStats(endpoints.get(i).name, merged, duration));
+        }
+        return stats;
+    }
+
+    private List<LatencyRecorder> runClient(Random random, long measureFrom, long measureTo) {
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        endpoints.forEach(endpoint -> recorders.add(new LatencyRecorder()));
+        while (System.nanoTime() < measureTo) {
+            int index = pickEndpoint(random);
+            Endpoint endpoint = endpoints.get(index);
+            HttpRequest request = endpoint.requests.apply(random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = LatencyRecorder.IO_ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= measureTo) {
+                recorders.get(index).record(status, end - start);
+            }
+        }
+        return recorders;
+    }
+
+    private int pickEndpoint(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < endpoints.size(); i++) {
+            value -= endpoints.get(i).weight;
+            if (value < 0) {
+                return i;
+            }
+        }
+        return endpoints.size() - 1;
+    }
+
+    private Function<Random, HttpRequest> requests(String name) {
+        switch (name) {
+            case "items":
+                return random -> get("/items?" + page(random), samplers.owner(random));
+            case "search":
+                return random -> get("/items/search?text="
+                        + URLEncoder.encode(samplers.word(random).toLowerCase(), StandardCharsets.UTF_8)
+                        + "&" + page(random), samplers.booker(random));
+            case "bookings":
+                return random -> get("/bookings?state=" + STATES[random.nextInt(STATES.length)]
+                        + "&" + page(random), samplers.booker(random));
+            case "bookings-owner":
+                return random -> get("/bookings/owner?state=" + STATES[random.nextInt(STATES.length)]
+                        + "&" + page(random), samplers.owner(random));
+            case "requests-all":
+                return random -> get("/requests/all?" + page(random), samplers.booker(random));
+            default:
+                throw new IllegalArgumentException("Неизвестный эндпоинт нагрузки: " + name);
+        }
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+    }
+
+    // Чаще всего смотрят первую страницу
+    private static String page(Random random) {
+        int page = random.nextInt(10) < 8 ? 0 : random.nextInt(5);
+        return "from=" + page * PAGE_SIZE + "&size=" + PAGE_SIZE;
+    }
+
+    private static class Endpoint {
+        private final String name;
+        private final int weight;
+        private final Function<Random, HttpRequest> requests;
+
+        Endpoint(String name, int weight, Function<Random, HttpRequest> requests) {
+            this.name = name;
+            this.weight = weight;
+            this.requests = requests;
+        }
+    }
+}
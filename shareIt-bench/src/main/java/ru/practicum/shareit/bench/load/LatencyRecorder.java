@@ -0,0 +1,46 @@
+package ru.practicum.shareit.bench.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Задержки успешных ответов одного эндпоинта и число ошибок по кодам ответа; у каждого клиента свой экземпляр
+class LatencyRecorder {
+    static final int IO_ERROR = -1;
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> errors = new TreeMap<>();
+
+    void record(int status, long latencyNanos) {
+        if (status >= 200 && status < 300) {
+            add(latencyNanos);
+        } else {
+            errors.merge(status, 1, Integer::sum);
+        }
+    }
+
+    void addAll(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            add(other.latencies[i]);
+        }
+        other.errors.forEach((status, errorCount) -> errors.merge(status, errorCount, Integer::sum));
+    }
+
+    long[] sortedLatencies() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    Map<Integer, Integer> getErrors() {
+        return errors;
+    }
+
+    private void add(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.admission;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Ограничения запросов шлюза к серверу: частота по пользователю и классу эндпоинта
+// и общее число одновременных запросов
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.admission")
+public class AdmissionProperties {
+    private boolean enabled = true;
+    private int maxConcurrentRequests = 200;
+    // Корзины пользователей, не приходивших дольше idleTimeout, удаляются; всего корзин не больше maximumBuckets
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private long maximumBuckets = 100_000;
+    // Класс эндпоинта (bookings, search, read, write) -> лимит; для класса без лимита запросы не ограничиваются
+    private Map<String, Limit> limits = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private double perSecond;
+        private int burst;
+    }
+}
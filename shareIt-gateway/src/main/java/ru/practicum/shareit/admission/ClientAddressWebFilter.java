@@ -0,0 +1,29 @@
+package ru.practicum.shareit.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+// В неблокирующем режиме нет запроса сервлета: адрес клиента для лимита частоты передаётся
+// в контексте Reactor, который доходит до подписки на запрос к серверу
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ClientAddressWebFilter implements WebFilter {
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RateLimiter.CLIENT_ADDRESS_KEY,
+                        remoteAddress.getAddress() != null
+                                ? remoteAddress.getAddress().getHostAddress()
+                                : remoteAddress.getHostString()));
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.exception.ServerOverloadedException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Общий лимит одновременных запросов к серверу: сверх него запрос сразу получает 503,
+// а не ждёт в очереди пула соединений и сервера
+@Slf4j
+@Component
+public class ConcurrencyLimiter {
+    private final AdmissionProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejected;
+
+    public ConcurrencyLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rejected = meterRegistry.counter("gateway.admission.rejected", "reason", "concurrency",
+                "endpoint", "all");
+        meterRegistry.gauge("gateway.admission.in-flight", inFlight);
+    }
+
+    public ServerExchange limiting(ServerExchange serverExchange) {
+        if (!properties.isEnabled()) {
+            return serverExchange;
+        }
+        return (method, uri, headers, body) -> Mono.defer(() -> {
+            if (inFlight.incrementAndGet() > properties.getMaxConcurrentRequests()) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                log.warn("Превышен лимит одновременных запросов к серверу {}.", properties.getMaxConcurrentRequests());
+                return Mono.error(new ServerOverloadedException());
+            }
+            return serverExchange.exchange(method, uri, headers, body)
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+    }
+}
@@ -0,0 +1,112 @@
+package ru.practicum.shareit.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+// Лимит частоты запросов по паре пользователь + класс эндпоинта. Запросы без X-Sharer-User-Id
+// (/users, /items/search) считаются по адресу клиента
+@Slf4j
+@Component
+public class RateLimiter {
+    // Ключ контекста Reactor, в который ClientAddressWebFilter кладёт адрес клиента в неблокирующем режиме
+    static final String CLIENT_ADDRESS_KEY = RateLimiter.class.getName() + ".clientAddress";
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumBuckets())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit-buckets");
+    }
+
+    public ServerExchange limiting(ServerExchange serverExchange) {
+        if (!properties.isEnabled()) {
+            return serverExchange;
+        }
+        return (method, uri, headers, body) -> {
+            // В блокирующем режиме адрес клиента есть только в потоке обработки запроса, до подписки,
+            // в неблокирующем он приходит в контексте подписки
+            String client = client(headers.getFirst("X-Sharer-User-Id"));
+            return Mono.deferContextual(context -> {
+                acquire(client != null ? client : client(context), endpointClass(method, uri));
+                return serverExchange.exchange(method, uri, headers, body);
+            });
+        };
+    }
+
+    // X-Forwarded-For от доверенного прокси учитывает веб-сервер (server.forward-headers-strategy),
+    // поэтому подменить адрес заголовком в обход прокси нельзя
+    @Nullable
+    static String client(@Nullable String userId) {
+        if (userId != null) {
+            return "user " + userId;
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes) {
+            return "address " + ((ServletRequestAttributes) requestAttributes).getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+
+    static String client(ContextView context) {
+        return context.<String>getOrEmpty(CLIENT_ADDRESS_KEY)
+                .map(address -> "address " + address)
+                .orElse("anonymous");
+    }
+
+    private void acquire(String client, String endpointClass) {
+        AdmissionProperties.Limit limit = properties.getLimits().get(endpointClass);
+        if (limit == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getPerSecond());
+        TokenBucket bucket = buckets.get(client + " " + endpointClass, key -> new TokenBucket(now));
+        long wait = bucket.tryConsume(now, intervalNanos, limit.getBurst());
+        if (wait > 0) {
+            meterRegistry.counter("gateway.admission.rejected", "reason", "rate-limit",
+                    "endpoint", endpointClass).increment();
+            log.warn("Превышен лимит запросов {} клиента {}.", endpointClass, client);
+            long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1);
+            throw new TooManyRequestsException(retryAfterSeconds);
+        }
+    }
+
+    // Тяжёлые для БД списки бронирований и поиск ограничиваются отдельно от остальных чтений
+    static String endpointClass(HttpMethod method, URI uri) {
+        if (method != HttpMethod.GET) {
+            return "write";
+        }
+        String path = uri.getPath();
+        if (path.endsWith("/bookings") || path.endsWith("/bookings/owner")) {
+            return "bookings";
+        }
+        if (path.endsWith("/items/search")) {
+            return "search";
+        }
+        return "read";
+    }
+}
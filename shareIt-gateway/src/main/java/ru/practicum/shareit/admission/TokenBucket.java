@@ -0,0 +1,29 @@
+package ru.practicum.shareit.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Корзина токенов без блокировок: состояние — одно время, когда корзина снова станет полной (алгоритм GCRA).
+// Запрос пропускается, если это время не дальше, чем burst - 1 интервалов от текущего момента
+final class TokenBucket {
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // 0, если токен получен, иначе сколько наносекунд ждать следующего
+    long tryConsume(long now, long intervalNanos, int burst) {
+        long burstTolerance = intervalNanos * (burst - 1);
+        while (true) {
+            long current = fullAt.get();
+            long start = Math.max(current, now);
+            long wait = start - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
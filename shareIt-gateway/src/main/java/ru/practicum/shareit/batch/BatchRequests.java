@@ -0,0 +1,21 @@
+package ru.practicum.shareit.batch;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.exception.NotValidException;
+
+import java.util.List;
+
+// Строки пакета проверяет сервер и возвращает отчёт по каждой, шлюз ограничивает только размер пакета
+@Slf4j
+@UtilityClass
+public class BatchRequests {
+    public static final int MAX_ROWS = 1000;
+
+    public static void checkSize(List<?> rows) {
+        if (rows == null || rows.isEmpty() || rows.size() > MAX_ROWS) {
+            log.error("Пакет должен содержать от 1 до {} строк.", MAX_ROWS);
+            throw new NotValidException(String.format("Пакет должен содержать от 1 до %d строк.", MAX_ROWS));
+        }
+    }
+}
@@ -2,15 +2,15 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchange;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,31 +18,40 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String shareItServerUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(shareItServerUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String shareItServerUrl, ServerExchange serverExchange) {
+        super(serverExchange, shareItServerUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> addBooking(long userId, BookingDto bookingDto) {
+    public Mono<ResponseEntity<Object>> addBooking(long userId, BookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> addBookings(long userId, List<BookingDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> approveBooking(long userId, long bookingId, boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingByBookerId(long bookerId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingByBookerId(long bookerId, BookingState state, Integer from, Integer size,
+                                                              String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "from", from,
+                    "size", size,
+                    "after", after
+            );
+            return get("?state={state}&from={from}&size={size}&after={after}", bookerId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -51,7 +60,17 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", bookerId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingByOwnerId(long ownerId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBookingByOwnerId(long ownerId, BookingState state, Integer from, Integer size,
+                                                              String after) {
+        if (after != null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "from", from,
+                    "size", size,
+                    "after", after
+            );
+            return get("/owner?state={state}&from={from}&size={size}&after={after}", ownerId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.BatchRequests;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
@@ -22,6 +24,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -32,8 +35,8 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@PostMapping
-	public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-												@RequestBody @Valid BookingDto bookingDto) {
+	public Mono<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+												      @RequestBody @Valid BookingDto bookingDto) {
 		log.info("Creating booking {}, userId={}", bookingDto, userId);
 		if (bookingDto.getStart() == null
 				|| bookingDto.getEnd() == null
@@ -45,40 +48,50 @@ public class BookingController {
 		return bookingClient.addBooking(userId, bookingDto);
 	}
 
+	@PostMapping("/batch")
+	public Mono<ResponseEntity<Object>> createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+													   @RequestBody List<BookingDto> bookingDtos) {
+		BatchRequests.checkSize(bookingDtos);
+		log.info("Creating {} bookings in batch, userId={}", bookingDtos.size(), userId);
+		return bookingClient.addBookings(userId, bookingDtos);
+	}
+
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-									 			 @PathVariable @Positive long bookingId,
-									 			 @RequestParam boolean approved) {
+	public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+									 			       @PathVariable @Positive long bookingId,
+									 			       @RequestParam boolean approved) {
 		log.info("Approving booking with id {}", bookingId);
 		return bookingClient.approveBooking(userId, bookingId, approved);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-											 @PathVariable Long bookingId) {
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+											       @PathVariable Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
 		return bookingClient.getBooking(userId, bookingId);
 	}
 
 	@GetMapping
-	public ResponseEntity<Object> getAllBookingByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
-														  @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-														  @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-														  @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getAllBookingByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
+														        @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+														        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+														        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+														        @RequestParam(name = "after", required = false) String after) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, bookerId, from, size);
-		return bookingClient.getAllBookingByBookerId(bookerId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, bookerId, from, size, after);
+		return bookingClient.getAllBookingByBookerId(bookerId, state, from, size, after);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllBookingByOwnerId(@RequestHeader("X-Sharer-User-Id") long ownerId,
-														 @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-														 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-														 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getAllBookingByOwnerId(@RequestHeader("X-Sharer-User-Id") long ownerId,
+														       @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+														       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+														       @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+														       @RequestParam(name = "after", required = false) String after) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, ownerId, from, size);
-		return bookingClient.getAllBookingByOwnerId(ownerId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, after={}", stateParam, ownerId, from, size, after);
+		return bookingClient.getAllBookingByOwnerId(ownerId, state, from, size, after);
 	}
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Одинаковые GET, пришедшие, пока такой же запрос ещё выполняется на сервере, к серверу не уходят,
+// а получают его ответ. Ключ — адрес с параметрами, пользователь и If-None-Match
+@Component
+public class RequestCoalescer {
+    private final Map<String, Mono<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter forwarded;
+    private final Counter coalesced;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.forwarded = meterRegistry.counter("gateway.requests.coalescing", "result", "forwarded");
+        this.coalesced = meterRegistry.counter("gateway.requests.coalescing", "result", "coalesced");
+        meterRegistry.gaugeMapSize("gateway.requests.in-flight", List.of(), inFlight);
+    }
+
+    public ServerExchange coalescing(ServerExchange serverExchange) {
+        return (method, uri, headers, body) -> method == HttpMethod.GET
+                ? Mono.defer(() -> join(key(uri, headers), () -> serverExchange.exchange(method, uri, headers, null)))
+                : serverExchange.exchange(method, uri, headers, body);
+    }
+
+    private Mono<ResponseEntity<byte[]>> join(String key, Supplier<Mono<ResponseEntity<byte[]>>> exchange) {
+        Mono<ResponseEntity<byte[]>> existing = inFlight.get(key);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        // cache() выполняет запрос один раз на всех подписчиков; запись удаляется, как только пришёл ответ
+        AtomicReference<Mono<ResponseEntity<byte[]>>> shared = new AtomicReference<>();
+        shared.set(exchange.get()
+                .doFinally(signal -> inFlight.remove(key, shared.get()))
+                .cache());
+        existing = inFlight.putIfAbsent(key, shared.get());
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        forwarded.increment();
+        return shared.get();
+    }
+
+    private static String key(URI uri, HttpHeaders headers) {
+        return uri + " " + headers.getFirst("X-Sharer-User-Id") + " " + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+    }
+}
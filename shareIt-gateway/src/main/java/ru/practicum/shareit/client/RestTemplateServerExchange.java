@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+// Один RestTemplate на всех клиентов поверх общего пула соединений из RestTemplatePoolConfig
+@Component
+@Qualifier("transport")
+@ConditionalOnProperty(name = "shareit-server.client", havingValue = "rest-template", matchIfMissing = true)
+public class RestTemplateServerExchange implements ServerExchange {
+    private final RestTemplate rest;
+
+    public RestTemplateServerExchange(RestTemplateBuilder builder, HttpClient serverHttpClient) {
+        this.rest = builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
+                .errorHandler(new PassThroughErrorHandler())
+                .build();
+    }
+
+    // Запрос выполняется при подписке, то есть в потоке Tomcat, обрабатывающем запрос к шлюзу
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body) {
+        return Mono.fromCallable(() -> rest.exchange(uri, method, new HttpEntity<>(body, headers), byte[].class));
+    }
+
+    // Ответ сервера с ошибкой передаётся клиенту как есть, без исключения и копирования тела в него
+    private static class PassThroughErrorHandler implements ResponseErrorHandler {
+        @Override
+        public boolean hasError(ClientHttpResponse response) {
+            return false;
+        }
+
+        @Override
+        public void handleError(ClientHttpResponse response) {
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Общий пул соединений шлюза с сервером, одинаковый для RestTemplate и WebClient
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ServerConnectionPoolProperties {
+    private int maxTotal = 500;
+    private int maxPerRoute = 500;
+    // Сколько соединение может простаивать в пуле, если сервер не прислал меньший срок в Keep-Alive.
+    // С тем же периодом фоновая задача закрывает простаивающие и истёкшие соединения
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    // Ожидание свободного соединения из пула
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+// Отправка запроса на сервер: блокирующая через RestTemplate или неблокирующая через WebClient,
+// выбирается свойством shareit-server.client. Тело ответа сервера возвращается байтами, без разбора JSON
+public interface ServerExchange {
+    Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import ru.practicum.shareit.admission.ConcurrencyLimiter;
+import ru.practicum.shareit.admission.RateLimiter;
+
+// Клиенты получают транспорт, обёрнутый по порядку: лимит частоты пользователя (считается каждый запрос),
+// объединение одинаковых GET и общий лимит одновременных запросов (считаются только ушедшие на сервер)
+@Configuration
+public class ServerExchangeConfig {
+    @Bean
+    @Primary
+    public ServerExchange serverExchange(@Qualifier("transport") ServerExchange transport,
+                                         RateLimiter rateLimiter,
+                                         RequestCoalescer requestCoalescer,
+                                         ConcurrencyLimiter concurrencyLimiter) {
+        return rateLimiter.limiting(requestCoalescer.coalescing(concurrencyLimiter.limiting(transport)));
+    }
+}
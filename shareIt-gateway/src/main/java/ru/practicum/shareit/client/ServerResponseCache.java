@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+// Ответы сервера с ETag по пользователю и адресу. Каждый запрос всё равно уходит на сервер с If-None-Match,
+// поэтому устаревший ответ не отдаётся, а на 304 тело берётся из кэша и повторно не передаётся
+@Component
+public class ServerResponseCache {
+    private final Cache<String, ResponseEntity<byte[]>> responses;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public ServerResponseCache(MeterRegistry meterRegistry,
+                               @Value("${shareit-server.response-cache.maximum-size}") long maximumSize,
+                               @Value("${shareit-server.response-cache.ttl}") Duration ttl) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "server-responses");
+        this.notModified = meterRegistry.counter("gateway.response.cache.revalidations", "result", "not-modified");
+        this.modified = meterRegistry.counter("gateway.response.cache.revalidations", "result", "modified");
+    }
+
+    public Mono<ResponseEntity<byte[]>> get(ServerExchange serverExchange, URI uri, HttpHeaders headers) {
+        String key = headers.getFirst("X-Sharer-User-Id") + " " + uri;
+        ResponseEntity<byte[]> cached = responses.getIfPresent(key);
+        if (cached != null) {
+            headers.setIfNoneMatch(List.of(cached.getHeaders().getETag()));
+        }
+        return serverExchange.exchange(HttpMethod.GET, uri, headers, null)
+                .map(response -> {
+                    if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                        notModified.increment();
+                        return cached;
+                    }
+                    if (cached != null) {
+                        modified.increment();
+                    }
+                    if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null) {
+                        responses.put(key, response);
+                    } else {
+                        responses.invalidate(key);
+                    }
+                    return response;
+                });
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+
+// Один WebClient на всех клиентов: соединения и потоки Netty общие, ожидание ответа сервера поток не занимает
+@Component
+@Qualifier("transport")
+@ConditionalOnProperty(name = "shareit-server.client", havingValue = "web-client")
+public class WebClientServerExchange implements ServerExchange, DisposableBean {
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public WebClientServerExchange(WebClient.Builder builder, ServerConnectionPoolProperties pool) {
+        // Лимит соединений Reactor Netty действует на каждый адрес, как maxPerRoute у Apache HttpClient.
+        // Очередь ожидания соединения не ограничена по длине, только по времени acquireTimeout.
+        // Метрики пула публикуются как reactor.netty.connection.provider.* с тегом name=shareit-server
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(pool.getMaxPerRoute())
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(pool.getAcquireTimeout())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .evictInBackground(pool.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .responseTimeout(pool.getReadTimeout());
+        this.webClient = builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body == null ? request : request.bodyValue(body);
+        return requestWithBody.exchangeToMono(response -> response.toEntity(byte[].class));
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+}
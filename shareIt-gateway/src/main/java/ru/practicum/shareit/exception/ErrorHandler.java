@@ -1,11 +1,15 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import java.util.Map;
 
@@ -20,4 +24,28 @@ public class ErrorHandler {
         log.error("Получен статус 400 BAD REQUEST. {}", e.getMessage(), e);
         return Map.of("error", e.getMessage());
     }
+
+    // Сервер недоступен, не ответил вовремя или в пуле не нашлось свободного соединения
+    @ExceptionHandler({ResourceAccessException.class, WebClientRequestException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public Map<String, String> handleServerUnavailableException(final RuntimeException e) {
+        log.error("Получен статус 503 SERVICE UNAVAILABLE. {}", e.getMessage(), e);
+        return Map.of("error", "Сервер недоступен");
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> handleTooManyRequestsException(final TooManyRequestsException e) {
+        log.warn("Получен статус 429 TOO MANY REQUESTS. {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Map<String, String>> handleServerOverloadedException(final ServerOverloadedException e) {
+        log.warn("Получен статус 503 SERVICE UNAVAILABLE. {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", e.getMessage()));
+    }
 }
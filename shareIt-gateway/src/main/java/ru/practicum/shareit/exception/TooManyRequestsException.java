@@ -0,0 +1,13 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(long retryAfterSeconds) {
+        super("Слишком много запросов, повторите через " + retryAfterSeconds + " с");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,44 +1,46 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String shareItServerUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(shareItServerUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String shareItServerUrl, ServerExchange serverExchange,
+                      ServerResponseCache serverResponseCache) {
+        super(serverExchange, serverResponseCache, shareItServerUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> addItem(long userId, ItemCreateDto itemCreateDto) {
+    public Mono<ResponseEntity<Object>> addItem(long userId, ItemCreateDto itemCreateDto) {
         return post("", userId, itemCreateDto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, ItemDto itemDto, long id) {
+    public Mono<ResponseEntity<Object>> addItems(long userId, List<ItemCreateDto> itemCreateDtos) {
+        return post("/batch", userId, itemCreateDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateItem(long userId, ItemDto itemDto, long id) {
         return patch("/" + id, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long id) {
-        return get("/" + id, userId);
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long id) {
+        return getRevalidated("/" + id, userId);
     }
 
-    public ResponseEntity<Object> getAllItemsByUserId(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByUserId(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,7 +48,19 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsBySearch(String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItemsBySearch(String text, Integer from, Integer size, LocalDateTime freeFrom,
+                                                         LocalDateTime freeTo) {
+        if (freeFrom != null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "from", from,
+                    "size", size,
+                    "freeFrom", freeFrom.toString(),
+                    "freeTo", freeTo.toString()
+            );
+            return get("/search?text={text}&from={from}&size={size}&freeFrom={freeFrom}&freeTo={freeTo}", null,
+                    parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -55,7 +69,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
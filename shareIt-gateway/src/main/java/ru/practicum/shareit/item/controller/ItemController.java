@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -13,6 +14,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.BatchRequests;
+import ru.practicum.shareit.exception.NotValidException;
 import ru.practicum.shareit.item.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreateDto;
@@ -21,7 +25,9 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 @Controller
 @AllArgsConstructor
@@ -32,50 +38,66 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @RequestBody @Valid ItemCreateDto itemCreateDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestBody @Valid ItemCreateDto itemCreateDto) {
         log.info("Creating user {}", itemCreateDto);
         return itemClient.addItem(userId, itemCreateDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestBody List<ItemCreateDto> itemCreateDtos) {
+        BatchRequests.checkSize(itemCreateDtos);
+        log.info("Creating {} items in batch, userId={}", itemCreateDtos.size(), userId);
+        return itemClient.addItems(userId, itemCreateDtos);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @RequestBody @Valid ItemDto itemDto,
-                                             @PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @RequestBody @Valid ItemDto itemDto,
+                                                   @PathVariable @Positive long id) {
         log.info("Updating item {}", itemDto);
         return itemClient.updateItem(userId, itemDto, id);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                              @PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @PathVariable @Positive long id) {
         log.info("Get item with id {}", id);
         return itemClient.getItemById(userId, id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                      @PositiveOrZero @RequestParam (name = "from", defaultValue = "0") Integer from,
-                                                      @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByUserId(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                            @PositiveOrZero @RequestParam (name = "from", defaultValue = "0") Integer from,
+                                                            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Get items with userId={}, from={}, size={}", userId, from, size);
         return itemClient.getAllItemsByUserId(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsBySearch(@RequestParam String text,
-                                                   @PositiveOrZero @RequestParam (name = "from", defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("Get items with text={}, from={}, size={}", text, from, size);
+    public Mono<ResponseEntity<Object>> getItemsBySearch(@RequestParam String text,
+                                                         @PositiveOrZero @RequestParam (name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                         @RequestParam(name = "freeFrom", required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeFrom,
+                                                         @RequestParam(name = "freeTo", required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeTo) {
+        log.info("Get items with text={}, from={}, size={}, freeFrom={}, freeTo={}", text, from, size, freeFrom, freeTo);
+        if ((freeFrom != null || freeTo != null)
+                && (freeFrom == null || freeTo == null || !freeFrom.isBefore(freeTo))) {
+            throw new NotValidException("Период свободы вещи задан неверно.");
+        }
         if (text == null || text.isBlank()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return Mono.just(ResponseEntity.ok(Collections.emptyList()));
         }
-        return itemClient.getItemsBySearch(text, from, size);
+        return itemClient.getItemsBySearch(text, from, size, freeFrom, freeTo);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                @PathVariable @Positive long itemId,
-                                                @RequestBody @Valid CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                      @PathVariable @Positive long itemId,
+                                                      @RequestBody @Valid CommentDto commentDto) {
         log.info("Creating comment {}", commentDto);
         return itemClient.addComment(userId, itemId, commentDto);
     }
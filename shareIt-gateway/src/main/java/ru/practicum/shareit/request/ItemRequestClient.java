@@ -1,12 +1,12 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -15,24 +15,20 @@ import java.util.Map;
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String shareItServerUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(shareItServerUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String shareItServerUrl, ServerExchange serverExchange,
+                             ServerResponseCache serverResponseCache) {
+        super(serverExchange, serverResponseCache, shareItServerUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> addItemRequest(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> addItemRequest(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllItemRequestsByUserId(long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByUserId(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllItemRequests(long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemRequests(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -40,7 +36,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemRequestById(long userId, long itemRequestId) {
-        return get("/" + itemRequestId, userId);
+    public Mono<ResponseEntity<Object>> getItemRequestById(long userId, long itemRequestId) {
+        return getRevalidated("/" + itemRequestId, userId);
     }
 }
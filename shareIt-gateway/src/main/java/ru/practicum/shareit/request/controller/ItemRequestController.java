@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -28,29 +29,29 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                    @RequestBody @Valid ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                          @RequestBody @Valid ItemRequestDto itemRequestDto) {
         log.info("Creating itemRequest {}", itemRequestDto);
         return itemRequestClient.addItemRequest(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemRequestsByUserId(@RequestHeader("X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByUserId(@RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Get all itemRequest by userId {}", userId);
         return itemRequestClient.getAllItemRequestsByUserId(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("Get itemRequests with userId={}, from={}, size={}", userId, from, size);
         return itemRequestClient.getAllItemRequests(userId, from, size);
     }
 
     @GetMapping("/{itemRequestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable @Positive long itemRequestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable @Positive long itemRequestId) {
         log.info("Get itemRequest by id {}", itemRequestId);
         return itemRequestClient.getItemRequestById(userId, itemRequestId);
     }
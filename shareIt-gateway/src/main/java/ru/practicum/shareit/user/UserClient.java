@@ -1,45 +1,47 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.ServerResponseCache;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.List;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String shareItServerUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(shareItServerUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String shareItServerUrl, ServerExchange serverExchange,
+                      ServerResponseCache serverResponseCache) {
+        super(serverExchange, serverResponseCache, shareItServerUrl + API_PREFIX);
     }
 
-    public ResponseEntity<Object> addUser(UserCreateDto userCreateDto) {
+    public Mono<ResponseEntity<Object>> addUser(UserCreateDto userCreateDto) {
         return post("", userCreateDto);
     }
 
-    public ResponseEntity<Object> updateUser(Long id, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> addUsers(List<UserCreateDto> userCreateDtos) {
+        return post("/batch", userCreateDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateUser(Long id, UserDto userDto) {
         return patch("/" + id, userDto);
     }
 
-    public ResponseEntity<Object> getUserById(long id) {
-        return get("/" + id);
+    public Mono<ResponseEntity<Object>> getUserById(long id) {
+        return getRevalidated("/" + id, null);
     }
 
-    public ResponseEntity<Object> deleteUser(long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(long id) {
         return delete("/" + id);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 }
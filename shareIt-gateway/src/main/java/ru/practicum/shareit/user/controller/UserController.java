@@ -12,12 +12,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.BatchRequests;
 import ru.practicum.shareit.user.UserClient;
 import ru.practicum.shareit.user.dto.UserCreateDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
+import java.util.List;
 
 @Controller
 @AllArgsConstructor
@@ -28,32 +31,39 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserCreateDto userCreateDto) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody @Valid UserCreateDto userCreateDto) {
         log.info("Creating user {}", userCreateDto);
         return userClient.addUser(userCreateDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createUsers(@RequestBody List<UserCreateDto> userCreateDtos) {
+        BatchRequests.checkSize(userCreateDtos);
+        log.info("Creating {} users in batch", userCreateDtos.size());
+        return userClient.addUsers(userCreateDtos);
+    }
+
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@RequestBody @Valid UserDto userDto,
-                                             @PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> updateUser(@RequestBody @Valid UserDto userDto,
+                                                   @PathVariable @Positive long id) {
         log.info("Updating user {}", userDto);
         return userClient.updateUser(id, userDto);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getUserById(@PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable @Positive long id) {
         log.info("Get user with id {}", id);
         return userClient.getUserById(id);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable @Positive long id) {
         log.info("Delete user with id {}", id);
         return userClient.deleteUser(id);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAllUsers() {
+    public Mono<ResponseEntity<Object>> findAllUsers() {
         log.info("Get all users");
         return userClient.getAllUsers();
     }
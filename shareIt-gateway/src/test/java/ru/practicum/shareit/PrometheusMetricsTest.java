@@ -0,0 +1,34 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
+class PrometheusMetricsTest {
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Задержка эндпоинтов шлюза публикуется для Prometheus с гистограммой")
+    void prometheus_whenRequestServed_thenEndpointTimerWithHistogram() {
+        // Отклоняется валидацией шлюза, сервер не нужен
+        restTemplate.getForEntity("/users/0", String.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().contains("http_server_requests_seconds_bucket{application=\"shareit-gateway\""));
+        assertTrue(response.getBody().contains("uri=\"/users/{id}\""));
+        assertTrue(response.getBody().contains("jvm_memory_used_bytes"));
+    }
+}
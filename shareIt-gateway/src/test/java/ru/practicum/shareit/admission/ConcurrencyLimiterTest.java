@@ -0,0 +1,58 @@
+package ru.practicum.shareit.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.exception.ServerOverloadedException;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConcurrencyLimiterTest {
+    private static final URI ITEM_URI = URI.create("http://localhost:9090/items/1");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServerExchange serverExchange;
+    private Sinks.One<ResponseEntity<byte[]>> upstreamResponse;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setMaxConcurrentRequests(2);
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamResponse = Sinks.one();
+        ServerExchange server = (method, uri, headers, body) -> upstreamResponse.asMono();
+        serverExchange = new ConcurrencyLimiter(properties, meterRegistry).limiting(server);
+    }
+
+    @Test
+    @DisplayName("Сверх лимита одновременных запросов запрос сразу отклоняется, после ответов снова принимается")
+    void exchange_whenLimitReached_thenServerOverloadedUntilCompleted() {
+        serverExchange.exchange(HttpMethod.GET, ITEM_URI, new HttpHeaders(), null).subscribe();
+        serverExchange.exchange(HttpMethod.GET, ITEM_URI, new HttpHeaders(), null).subscribe();
+
+        assertThrows(ServerOverloadedException.class,
+                () -> serverExchange.exchange(HttpMethod.GET, ITEM_URI, new HttpHeaders(), null).block());
+        assertEquals(2, meterRegistry.get("gateway.admission.in-flight").gauge().value());
+        assertEquals(1, meterRegistry.get("gateway.admission.rejected")
+                .tag("reason", "concurrency")
+                .counter()
+                .count());
+
+        upstreamResponse.tryEmitValue(ResponseEntity.ok().build());
+
+        assertEquals(0, meterRegistry.get("gateway.admission.in-flight").gauge().value());
+        assertEquals(HttpStatus.OK, serverExchange.exchange(HttpMethod.GET, ITEM_URI, new HttpHeaders(), null)
+                .block()
+                .getStatusCode());
+    }
+}
@@ -0,0 +1,184 @@
+package ru.practicum.shareit.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private static final URI BOOKINGS_URI = URI.create("http://localhost:9090/bookings?state=ALL&from=0&size=10");
+    private static final URI ITEM_URI = URI.create("http://localhost:9090/items/1");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServerExchange serverExchange;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setLimits(Map.of("bookings", limit(0.001, 3)));
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new AtomicInteger();
+        ServerExchange server = (method, uri, headers, body) -> Mono.fromSupplier(() -> {
+            upstreamCalls.incrementAndGet();
+            return ResponseEntity.ok().build();
+        });
+        serverExchange = new RateLimiter(properties, meterRegistry).limiting(server);
+    }
+
+    @Test
+    @DisplayName("Сверх burst запросы пользователя отклоняются с временем до следующего токена")
+    void exchange_whenBurstExceeded_thenTooManyRequests() {
+        for (int i = 0; i < 3; i++) {
+            get(BOOKINGS_URI, 1L).block();
+        }
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> get(BOOKINGS_URI, 1L).block());
+
+        assertEquals(3, upstreamCalls.get());
+        assertTrue(e.getRetryAfterSeconds() > 900);
+        assertEquals(1, meterRegistry.get("gateway.admission.rejected")
+                .tag("reason", "rate-limit")
+                .tag("endpoint", "bookings")
+                .counter()
+                .count());
+    }
+
+    @Test
+    @DisplayName("У каждого пользователя и класса эндпоинта своя корзина, класс без лимита не ограничен")
+    void exchange_whenOtherUserOrUnlimitedClass_thenAllowed() {
+        for (int i = 0; i < 3; i++) {
+            get(BOOKINGS_URI, 1L).block();
+        }
+
+        get(BOOKINGS_URI, 2L).block();
+        for (int i = 0; i < 10; i++) {
+            get(ITEM_URI, 1L).block();
+        }
+
+        assertEquals(14, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Анонимные клиенты с разных адресов получают разные корзины")
+    void exchange_whenTwoAnonymousClients_thenSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            anonymousGet(BOOKINGS_URI, "10.0.0.1").block();
+        }
+
+        anonymousGet(BOOKINGS_URI, "10.0.0.2").block();
+        assertThrows(TooManyRequestsException.class, () -> anonymousGet(BOOKINGS_URI, "10.0.0.1").block());
+
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("В неблокирующем режиме без запроса сервлета анонимные клиенты с разных адресов получают разные корзины")
+    void exchange_whenTwoAnonymousReactiveClients_thenSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            reactiveAnonymousGet(BOOKINGS_URI, "10.0.0.1").block();
+        }
+
+        reactiveAnonymousGet(BOOKINGS_URI, "10.0.0.2").block();
+        assertThrows(TooManyRequestsException.class,
+                () -> reactiveAnonymousGet(BOOKINGS_URI, "10.0.0.1").block());
+
+        assertEquals(4, upstreamCalls.get());
+    }
+
+    @Test
+    @DisplayName("Одновременные запросы из многих потоков получают ровно burst токенов")
+    void tryConsume_whenConcurrent_thenExactlyBurstAdmitted() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(System.nanoTime());
+        long intervalNanos = TimeUnit.HOURS.toNanos(1);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (bucket.tryConsume(System.nanoTime(), intervalNanos, 50) == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, admitted.get());
+    }
+
+    @Test
+    @DisplayName("Классы эндпоинтов: списки бронирований, поиск, прочие чтения и изменения")
+    void endpointClass_whenRequested_thenClassifiedByMethodAndPath() {
+        assertEquals("bookings", RateLimiter.endpointClass(HttpMethod.GET, BOOKINGS_URI));
+        assertEquals("bookings", RateLimiter.endpointClass(HttpMethod.GET,
+                URI.create("http://localhost:9090/bookings/owner?state=ALL")));
+        assertEquals("search", RateLimiter.endpointClass(HttpMethod.GET,
+                URI.create("http://localhost:9090/items/search?text=drill")));
+        assertEquals("read", RateLimiter.endpointClass(HttpMethod.GET, ITEM_URI));
+        assertEquals("write", RateLimiter.endpointClass(HttpMethod.PATCH, ITEM_URI));
+    }
+
+    private Mono<ResponseEntity<byte[]>> get(URI uri, long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return serverExchange.exchange(HttpMethod.GET, uri, headers, null);
+    }
+
+    private Mono<ResponseEntity<byte[]>> anonymousGet(URI uri, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddress);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return serverExchange.exchange(HttpMethod.GET, uri, new HttpHeaders(), null);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private Mono<Void> reactiveAnonymousGet(URI uri, String remoteAddress) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri.toString())
+                .remoteAddress(new InetSocketAddress(remoteAddress, 54321)));
+        return new ClientAddressWebFilter().filter(exchange,
+                webExchange -> serverExchange.exchange(HttpMethod.GET, uri, new HttpHeaders(), null).then());
+    }
+
+    private static AdmissionProperties.Limit limit(double perSecond, int burst) {
+        AdmissionProperties.Limit limit = new AdmissionProperties.Limit();
+        limit.setPerSecond(perSecond);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
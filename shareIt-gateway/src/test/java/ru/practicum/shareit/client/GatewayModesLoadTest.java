@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import ru.practicum.shareit.ShareItGatewayApp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Пропускная способность, задержка и число потоков шлюза в блокирующем (Tomcat + RestTemplate)
+ * и неблокирующем (Netty + WebClient) режимах. Сервер заменён заглушкой, отвечающей с фиксированной задержкой.
+ * Запуск: mvn test -pl shareIt-gateway -Dtest=GatewayModesLoadTest -Dbenchmark=true
+ * Параметры: -Dbenchmark.concurrency — уровни одновременных запросов (по умолчанию 100,1000),
+ * -Dbenchmark.delay — задержка ответа сервера в мс (по умолчанию 50),
+ * -Dbenchmark.requests — запросов на одного одновременного клиента (по умолчанию 5).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GatewayModesLoadTest {
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Дрель\",\"description\":\"Простая дрель\","
+            + "\"available\":true,\"comments\":[]}";
+
+    // Свои потоки у заглушки сервера и у нагрузки: общие ресурсы Reactor Netty закрываются вместе со шлюзом
+    private LoopResources loopResources;
+    private DisposableServer shareItServer;
+
+    @BeforeEach
+    void setUp() {
+        Duration delay = Duration.ofMillis(Integer.getInteger("benchmark.delay", 50));
+        loopResources = LoopResources.create("load-test");
+        shareItServer = HttpServer.create()
+                .runOn(loopResources)
+                .port(0)
+                .handle((request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.delay(delay).thenReturn(ITEM_JSON)))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        shareItServer.disposeNow();
+        loopResources.disposeLater().block();
+    }
+
+    @Test
+    @DisplayName("Блокирующий и неблокирующий режимы шлюза под нагрузкой")
+    void gateway_blockingVersusReactive() {
+        List<Integer> concurrencyLevels = Arrays.stream(System.getProperty("benchmark.concurrency", "100,1000")
+                        .split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+        int requestsPerClient = Integer.getInteger("benchmark.requests", 5);
+        for (String mode : List.of("blocking", "reactive")) {
+            try (ConfigurableApplicationContext gateway = startGateway(mode)) {
+                int port = Integer.parseInt(gateway.getEnvironment().getProperty("local.server.port"));
+                run(mode, port, 50, 10, false);
+                for (int concurrency : concurrencyLevels) {
+                    run(mode, port, concurrency, requestsPerClient, true);
+                }
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startGateway(String mode) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItGatewayApp.class);
+        if (mode.equals("reactive")) {
+            builder.profiles("reactive");
+        }
+        return builder.run("--server.port=0",
+                "--shareit-server.url=http://localhost:" + shareItServer.port(),
+                "--logging.level.ru.practicum=WARN",
+                "--shareit.admission.enabled=false");
+    }
+
+    private void run(String mode, int port, int concurrency, int requestsPerClient, boolean report) {
+        int requests = concurrency * requestsPerClient;
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("load")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.add("X-Sharer-User-Id", "1"));
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threadMXBean.getThreadCount();
+        threadMXBean.resetPeakThreadCount();
+        AtomicInteger failed = new AtomicInteger();
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long requestStart = System.nanoTime();
+                    return httpClient.get()
+                            .uri("/items/1")
+                            .responseSingle((response, body) -> body.asString()
+                                    .defaultIfEmpty("")
+                                    .doOnNext(ignored -> {
+                                        if (response.status().code() != 200) {
+                                            failed.incrementAndGet();
+                                        }
+                                    }))
+                            .onErrorResume(e -> {
+                                failed.incrementAndGet();
+                                return Mono.just("");
+                            })
+                            .doOnNext(ignored ->
+                                    latencies[completed.getAndIncrement()] = System.nanoTime() - requestStart);
+                }, concurrency)
+                .blockLast(Duration.ofMinutes(10));
+        long elapsed = System.nanoTime() - start;
+        connectionProvider.disposeLater().block();
+
+        if (report) {
+            Arrays.sort(latencies);
+            log.warn("{} x{}: {} запросов/с, p50 = {} мс, p99 = {} мс, потоков до нагрузки {}, в пике {}", mode,
+                    concurrency, requests * 1_000_000_000L / elapsed, latencies[requests / 2] / 1_000_000,
+                    latencies[requests * 99 / 100] / 1_000_000, threadsBefore, threadMXBean.getPeakThreadCount());
+        }
+        assertEquals(0, failed.get());
+    }
+}
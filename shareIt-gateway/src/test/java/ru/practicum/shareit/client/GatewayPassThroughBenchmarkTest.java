@@ -0,0 +1,163 @@
+package ru.practicum.shareit.client;
+
+import com.sun.management.ThreadMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import ru.practicum.shareit.ShareItGatewayApp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Процессорное время и объём выделенной памяти на один запрос в потоках шлюза при передаче
+ * ответа сервера. Сервер заменён заглушкой, сразу отдающей список бронирований, потоки заглушки
+ * и нагрузки в подсчёт не входят.
+ * Запуск: mvn test -pl shareIt-gateway -Dtest=GatewayPassThroughBenchmarkTest -Dbenchmark=true
+ * Параметры: -Dbenchmark.requests — число измеряемых запросов (по умолчанию 20000),
+ * -Dbenchmark.bookings — бронирований в ответе сервера (по умолчанию 50).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GatewayPassThroughBenchmarkTest {
+    private static final int CONCURRENCY = 16;
+
+    private final ThreadMXBean threadMXBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private LoopResources loopResources;
+    private DisposableServer shareItServer;
+    private byte[] bookingsJson;
+
+    @BeforeEach
+    void setUp() {
+        bookingsJson = bookingsJson(Integer.getInteger("benchmark.bookings", 50)).getBytes(StandardCharsets.UTF_8);
+        loopResources = LoopResources.create("load-test");
+        shareItServer = HttpServer.create()
+                .runOn(loopResources)
+                .port(0)
+                .handle((request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.just(bookingsJson)))
+                .bindNow();
+    }
+
+    @AfterEach
+    void tearDown() {
+        shareItServer.disposeNow();
+        loopResources.disposeLater().block();
+    }
+
+    @Test
+    @DisplayName("Процессорное время и выделение памяти шлюза на запрос")
+    void gateway_cpuAndAllocationPerRequest() {
+        int requests = Integer.getInteger("benchmark.requests", 20_000);
+        for (String mode : List.of("blocking", "reactive")) {
+            try (ConfigurableApplicationContext gateway = startGateway(mode)) {
+                int port = Integer.parseInt(gateway.getEnvironment().getProperty("local.server.port"));
+                run(port, requests / 4);
+
+                Map<Long, long[]> before = gatewayThreadUsage();
+                long start = System.nanoTime();
+                run(port, requests);
+                long elapsed = System.nanoTime() - start;
+                Map<Long, long[]> after = gatewayThreadUsage();
+
+                long cpu = 0;
+                long allocated = 0;
+                for (Map.Entry<Long, long[]> entry : after.entrySet()) {
+                    long[] initial = before.getOrDefault(entry.getKey(), new long[2]);
+                    cpu += entry.getValue()[0] - initial[0];
+                    allocated += entry.getValue()[1] - initial[1];
+                }
+                log.warn("{}: ответ сервера {} байт, {} мкс процессора и {} КБ памяти на запрос, {} запросов/с, "
+                                + "выделение памяти {} МБ/с", mode, bookingsJson.length, cpu / requests / 1_000,
+                        allocated / requests / 1_024, requests * 1_000_000_000L / elapsed,
+                        allocated * 1_000_000_000L / elapsed / (1_024 * 1_024));
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startGateway(String mode) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItGatewayApp.class);
+        if (mode.equals("reactive")) {
+            builder.profiles("reactive");
+        }
+        return builder.run("--server.port=0",
+                "--shareit-server.url=http://localhost:" + shareItServer.port(),
+                "--logging.level.ru.practicum=WARN",
+                "--shareit.admission.enabled=false");
+    }
+
+    private void run(int port, int requests) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("load")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .baseUrl("http://localhost:" + port)
+                .headers(headers -> headers.add("X-Sharer-User-Id", "1"));
+        AtomicInteger failed = new AtomicInteger();
+
+        Flux.range(0, requests)
+                .flatMap(i -> httpClient.get()
+                        .uri("/bookings?state=ALL&from=0&size=" + CONCURRENCY)
+                        .responseSingle((response, body) -> body.asByteArray()
+                                .defaultIfEmpty(new byte[0])
+                                .doOnNext(bytes -> {
+                                    if (response.status().code() != 200 || bytes.length == 0) {
+                                        failed.incrementAndGet();
+                                    }
+                                })), CONCURRENCY)
+                .blockLast(Duration.ofMinutes(10));
+        connectionProvider.disposeLater().block();
+        assertEquals(0, failed.get());
+    }
+
+    // Процессорное время и выделенная память по потокам, кроме потоков заглушки, нагрузки и самого теста
+    private Map<Long, long[]> gatewayThreadUsage() {
+        Map<Long, long[]> usage = new HashMap<>();
+        long currentThreadId = Thread.currentThread().getId();
+        for (long threadId : threadMXBean.getAllThreadIds()) {
+            ThreadInfo threadInfo = threadMXBean.getThreadInfo(threadId);
+            if (threadId == currentThreadId || threadInfo == null
+                    || threadInfo.getThreadName().startsWith("load-test")) {
+                continue;
+            }
+            usage.put(threadId, new long[]{threadMXBean.getThreadCpuTime(threadId),
+                    threadMXBean.getThreadAllocatedBytes(threadId)});
+        }
+        return usage;
+    }
+
+    private static String bookingsJson(int bookings) {
+        return IntStream.rangeClosed(1, bookings)
+                .mapToObj(i -> "{\"id\":" + i + ",\"start\":\"2026-10-01T12:00:00\",\"end\":\"2026-10-02T12:00:00\","
+                        + "\"status\":\"APPROVED\",\"booker\":{\"id\":" + (i + 100) + ",\"name\":\"Пользователь " + i
+                        + "\",\"email\":\"user" + i + "@mail.ru\"},\"item\":{\"id\":" + i + ",\"name\":\"Дрель " + i
+                        + "\",\"description\":\"Простая дрель для домашнего ремонта\",\"available\":true,"
+                        + "\"lastBooking\":null,\"nextBooking\":null,\"comments\":[]}}")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RequestCoalescerTest {
+    private static final URI SEARCH_URI = URI.create("http://localhost:9090/items/search?text=drill&from=0&size=10");
+
+    private SimpleMeterRegistry meterRegistry;
+    private ServerExchange serverExchange;
+    private AtomicInteger upstreamCalls;
+    private Sinks.One<ResponseEntity<byte[]>> upstreamResponse;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamCalls = new AtomicInteger();
+        upstreamResponse = Sinks.one();
+        ServerExchange server = (method, uri, headers, body) -> Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            return upstreamResponse.asMono();
+        });
+        serverExchange = new RequestCoalescer(meterRegistry).coalescing(server);
+    }
+
+    @Test
+    @DisplayName("Одинаковые одновременные GET получают один ответ сервера")
+    void exchange_whenIdenticalGetsInFlight_thenOneUpstreamCall() {
+        List<ResponseEntity<byte[]>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            serverExchange.exchange(HttpMethod.GET, SEARCH_URI, headers(null), null).subscribe(responses::add);
+        }
+        ResponseEntity<byte[]> response = ResponseEntity.ok("[]".getBytes(StandardCharsets.UTF_8));
+
+        upstreamResponse.tryEmitValue(response);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(10, responses.size());
+        responses.forEach(received -> assertSame(response, received));
+        assertEquals(1, count("forwarded"));
+        assertEquals(9, count("coalesced"));
+    }
+
+    @Test
+    @DisplayName("После ответа сервера следующий такой же GET снова уходит на сервер")
+    void exchange_whenPreviousCompleted_thenForwardedAgain() {
+        upstreamResponse.tryEmitValue(ResponseEntity.ok().build());
+
+        serverExchange.exchange(HttpMethod.GET, SEARCH_URI, headers(null), null).block();
+        serverExchange.exchange(HttpMethod.GET, SEARCH_URI, headers(null), null).block();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    @DisplayName("GET разных пользователей и с разным If-None-Match не объединяются")
+    void exchange_whenOtherUserOrETag_thenNotCoalesced() {
+        HttpHeaders conditional = headers(1L);
+        conditional.setIfNoneMatch("\"etag\"");
+
+        serverExchange.exchange(HttpMethod.GET, SEARCH_URI, headers(1L), null).subscribe();
+        serverExchange.exchange(HttpMethod.GET, SEARCH_URI, headers(2L), null).subscribe();
+        serverExchange.exchange(HttpMethod.GET, SEARCH_URI, conditional, null).subscribe();
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    @DisplayName("Изменяющие запросы не объединяются")
+    void exchange_whenPost_thenAlwaysForwarded() {
+        serverExchange.exchange(HttpMethod.POST, SEARCH_URI, headers(1L), "{}").subscribe();
+        serverExchange.exchange(HttpMethod.POST, SEARCH_URI, headers(1L), "{}").subscribe();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private static HttpHeaders headers(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return headers;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.requests.coalescing").tag("result", result).counter().count();
+    }
+}
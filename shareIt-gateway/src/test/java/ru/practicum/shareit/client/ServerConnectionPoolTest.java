@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.pool.max-total=20",
+        "shareit-server.pool.max-per-route=10",
+        "shareit-server.pool.read-timeout=300ms"
+})
+class ServerConnectionPoolTest {
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Дрель\",\"description\":\"Простая дрель\","
+            + "\"available\":true,\"comments\":[]}";
+    private static final LoopResources loopResources = LoopResources.create("pool-test");
+    // Заглушка сервера: вещь 2 отдаётся дольше, чем read-timeout шлюза
+    private static final DisposableServer shareItServer = HttpServer.create()
+            .runOn(loopResources)
+            .port(0)
+            .route(routes -> routes
+                    .get("/items/1", (request, response) -> response
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.just(ITEM_JSON), StandardCharsets.UTF_8))
+                    .get("/items/2", (request, response) -> response
+                            .header("Content-Type", "application/json")
+                            .sendString(Mono.delay(Duration.ofSeconds(2)).thenReturn(ITEM_JSON),
+                                    StandardCharsets.UTF_8)))
+            .bindNow();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private PoolingHttpClientConnectionManager serverConnectionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void shareItServerUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareItServer.port());
+    }
+
+    @AfterAll
+    static void tearDown() {
+        shareItServer.disposeNow();
+        loopResources.disposeLater().block();
+    }
+
+    @Test
+    @DisplayName("Ответ сервера проходит через общий пул, размер пула задаётся свойствами и виден в метриках")
+    void getItem_whenServerResponds_thenConnectionReturnedToPool() {
+        ResponseEntity<String> response = getItem(1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ITEM_JSON, response.getBody());
+        assertEquals(20, serverConnectionManager.getMaxTotal());
+        assertEquals(10, serverConnectionManager.getDefaultMaxPerRoute());
+        assertEquals(20, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "shareit-server").gauge().value());
+        assertEquals(0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "shareit-server").tag("state", "leased").gauge().value());
+        assertEquals(1, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "shareit-server").tag("state", "available").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Сервер не ответил за read-timeout — шлюз возвращает 503")
+    void getItem_whenServerTooSlow_thenServiceUnavailable() {
+        ResponseEntity<String> response = getItem(2);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    private ResponseEntity<String> getItem(long itemId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return restTemplate.exchange("/items/{id}", HttpMethod.GET, new HttpEntity<>(headers), String.class, itemId);
+    }
+}
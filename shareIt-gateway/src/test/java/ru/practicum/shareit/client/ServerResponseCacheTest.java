@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ServerResponseCacheTest {
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Дрель\",\"description\":\"Простая дрель\","
+            + "\"available\":true,\"comments\":[]}";
+    private static final String ETAG = "\"0123456789abcdef\"";
+    private static final LoopResources loopResources = LoopResources.create("cache-test");
+    // If-None-Match каждого запроса к заглушке сервера, "-" если заголовка не было
+    private static final List<String> receivedIfNoneMatch = new CopyOnWriteArrayList<>();
+    private static final DisposableServer shareItServer = HttpServer.create()
+            .runOn(loopResources)
+            .port(0)
+            .route(routes -> routes
+                    .get("/items/1", (request, response) -> {
+                        String ifNoneMatch = request.requestHeaders().get(HttpHeaders.IF_NONE_MATCH, "-");
+                        receivedIfNoneMatch.add(ifNoneMatch);
+                        if (ifNoneMatch.equals(ETAG)) {
+                            return response.status(HttpStatus.NOT_MODIFIED.value())
+                                    .header(HttpHeaders.ETAG, ETAG)
+                                    .send();
+                        }
+                        return response.header(HttpHeaders.CONTENT_TYPE, "application/json")
+                                .header(HttpHeaders.ETAG, ETAG)
+                                .sendString(Mono.just(ITEM_JSON), StandardCharsets.UTF_8);
+                    }))
+            .bindNow();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void shareItServerUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + shareItServer.port());
+    }
+
+    @BeforeEach
+    void setUp() {
+        receivedIfNoneMatch.clear();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        shareItServer.disposeNow();
+        loopResources.disposeLater().block();
+    }
+
+    @Test
+    @DisplayName("Повторный запрос вещи проверяется на сервере по ETag, тело отдаётся из кэша шлюза")
+    void getItem_whenRepeated_thenRevalidatedAndServedFromCache() {
+        double notModifiedBefore = notModifiedCount();
+
+        ResponseEntity<String> first = getItem(1L, null);
+        ResponseEntity<String> second = getItem(1L, null);
+
+        assertEquals(List.of("-", ETAG), receivedIfNoneMatch);
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(ITEM_JSON, first.getBody());
+        assertEquals(ITEM_JSON, second.getBody());
+        assertEquals(ETAG, second.getHeaders().getETag());
+        assertEquals(notModifiedBefore + 1, notModifiedCount());
+    }
+
+    @Test
+    @DisplayName("Клиент с актуальным ETag получает от шлюза 304 без тела")
+    void getItem_whenClientETagMatches_thenNotModified() {
+        ResponseEntity<String> response = getItem(2L, ETAG);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    @DisplayName("Ответы разных пользователей кэшируются отдельно")
+    void getItem_whenOtherUser_thenNotServedFromFirstUserCache() {
+        getItem(3L, null);
+        getItem(4L, null);
+
+        assertEquals(List.of("-", "-"), receivedIfNoneMatch);
+    }
+
+    private ResponseEntity<String> getItem(long userId, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange("/items/1", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private double notModifiedCount() {
+        return meterRegistry.get("gateway.response.cache.revalidations")
+                .tag("result", "not-modified")
+                .counter()
+                .count();
+    }
+}
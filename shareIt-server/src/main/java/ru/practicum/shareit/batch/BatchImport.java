@@ -0,0 +1,76 @@
+package ru.practicum.shareit.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowResultDto;
+import ru.practicum.shareit.exception.BatchConflictException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+// Строки пакетного импорта в порядке запроса: отклонённые получают ошибку сразу,
+// принятые копятся для одного saveAll и получают идентификаторы после сохранения
+@Slf4j
+public class BatchImport<T> {
+    private static final String EMPTY_ROW_ERROR = "Строка пакета не может быть пустой.";
+    private static final String CONFLICT_ERROR = "Пакет не сохранён: строки нарушают ограничения БД.";
+
+    private final BatchRowResultDto[] rows;
+    private final List<Integer> acceptedIndexes = new ArrayList<>();
+    private final List<T> accepted = new ArrayList<>();
+
+    public BatchImport(int size) {
+        rows = new BatchRowResultDto[size];
+    }
+
+    public void accept(int index, T entity) {
+        acceptedIndexes.add(index);
+        accepted.add(entity);
+    }
+
+    public void reject(int index, String error) {
+        rows[index] = BatchRowResultDto.rejected(index, error);
+    }
+
+    // null в массиве JSON отклоняется по своему индексу, как и строка с ошибкой
+    public boolean rejectIfEmpty(int index, @Nullable Object row) {
+        if (row != null) {
+            return false;
+        }
+        reject(index, EMPTY_ROW_ERROR);
+        return true;
+    }
+
+    public List<T> getAccepted() {
+        return Collections.unmodifiableList(accepted);
+    }
+
+    // Вставки сбрасываются в БД внутри вызова, чтобы нарушение ограничения (например, email, занятый
+    // параллельным запросом) пришло сюда, а не при фиксации. Отнести его к строке нельзя: транзакция
+    // откатывается целиком, и отчёт помечает все принятые строки
+    public List<T> save(UnaryOperator<List<T>> saveAllAndFlush) {
+        try {
+            return saveAllAndFlush.apply(getAccepted());
+        } catch (DataIntegrityViolationException e) {
+            log.error(CONFLICT_ERROR + " {}", e.getMostSpecificCause().getMessage());
+            for (int index : acceptedIndexes) {
+                reject(index, CONFLICT_ERROR);
+            }
+            throw new BatchConflictException(CONFLICT_ERROR, new BatchResultDto(0, rows.length, Arrays.asList(rows)));
+        }
+    }
+
+    public BatchResultDto toResult(List<T> saved, ToLongFunction<T> idGetter) {
+        for (int i = 0; i < saved.size(); i++) {
+            int index = acceptedIndexes.get(i);
+            rows[index] = BatchRowResultDto.created(index, idGetter.applyAsLong(saved.get(i)));
+        }
+        return new BatchResultDto(saved.size(), rows.length - saved.size(), Arrays.asList(rows));
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.batch.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchResultDto {
+    private final int created;
+    private final int rejected;
+    private final List<BatchRowResultDto> rows;
+}
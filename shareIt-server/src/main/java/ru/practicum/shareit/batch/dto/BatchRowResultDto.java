@@ -0,0 +1,20 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchRowResultDto {
+    private final int index;
+    private final Long id;
+    private final String error;
+
+    public static BatchRowResultDto created(int index, long id) {
+        return new BatchRowResultDto(index, id, null);
+    }
+
+    public static BatchRowResultDto rejected(int index, String error) {
+        return new BatchRowResultDto(index, null, error);
+    }
+}
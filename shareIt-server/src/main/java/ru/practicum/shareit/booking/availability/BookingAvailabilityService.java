@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Занятость вещей в памяти: интервалы бронирований подгружаются при первом обращении к вещи,
+// дополняются после фиксации транзакций этого экземпляра и вытесняются по давности использования.
+// Изменения с других экземпляров сюда не приходят, поэтому загруженная занятость живёт не дольше ttl.
+// Загружаются только бронирования, которые ещё не закончились: окна, начинающиеся в прошлом, проверяются по БД
+@Slf4j
+@Component
+public class BookingAvailabilityService {
+    private static final List<BookingStatus> TRACKED_STATUSES = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+    private static final int LOAD_BATCH_SIZE = 100;
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, ItemAvailability> itemIdToAvailability;
+    private final long ttlNanos;
+    // Меняется при каждом изменении бронирований, чтобы не закэшировать загруженное до чужой фиксации
+    private final AtomicLong modifications = new AtomicLong();
+
+    public BookingAvailabilityService(BookingRepository bookingRepository,
+                                      @Value("${shareit.booking.availability.max-items}") int maxItems,
+                                      @Value("${shareit.booking.availability.ttl}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.itemIdToAvailability = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemAvailability> eldest) {
+                return size() > maxItems;
+            }
+        };
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end, boolean countWaiting) {
+        if (start.isBefore(LocalDateTime.now())) {
+            return new ItemAvailability(bookingRepository.findIntervalsByItemId(itemId, TRACKED_STATUSES, start))
+                    .isFree(start, end, countWaiting);
+        }
+        return getAvailability(itemId).isFree(start, end, countWaiting);
+    }
+
+    public List<Long> findFreeItemIds(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end,
+                                      boolean countWaiting) {
+        Map<Long, ItemAvailability> availabilities = start.isBefore(LocalDateTime.now())
+                ? loadAvailabilities(itemIds, start)
+                : getAvailabilities(itemIds);
+        return itemIds.stream()
+                .filter(itemId -> availabilities.get(itemId).isFree(start, end, countWaiting))
+                .collect(Collectors.toList());
+    }
+
+    // Сбрасывает занятость вещи, если она разошлась с БД
+    public void invalidate(long itemId) {
+        modifications.incrementAndGet();
+        synchronized (itemIdToAvailability) {
+            itemIdToAvailability.remove(itemId);
+        }
+    }
+
+    public void onBookingSaved(Booking booking) {
+        long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        BookingStatus status = booking.getStatus();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, bookingId, start, end, status);
+            return;
+        }
+        // До фиксации изменение могут откатить, а другие транзакции его ещё не видят
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(itemId, bookingId, start, end, status);
+            }
+        });
+    }
+
+    private void apply(long itemId, long bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        modifications.incrementAndGet();
+        ItemAvailability availability;
+        synchronized (itemIdToAvailability) {
+            availability = itemIdToAvailability.get(itemId);
+        }
+        if (availability != null) {
+            availability.put(bookingId, start, end, status);
+        }
+    }
+
+    private ItemAvailability getAvailability(long itemId) {
+        synchronized (itemIdToAvailability) {
+            ItemAvailability availability = getFresh(itemId, System.nanoTime());
+            if (availability != null) {
+                return availability;
+            }
+        }
+        long version = modifications.get();
+        ItemAvailability availability = new ItemAvailability(
+                bookingRepository.findIntervalsByItemId(itemId, TRACKED_STATUSES, LocalDateTime.now()));
+        return cache(itemId, availability, version);
+    }
+
+    private Map<Long, ItemAvailability> getAvailabilities(Collection<Long> itemIds) {
+        Map<Long, ItemAvailability> availabilities = new HashMap<>();
+        List<Long> missingItemIds = new ArrayList<>();
+        synchronized (itemIdToAvailability) {
+            long now = System.nanoTime();
+            for (Long itemId : itemIds) {
+                ItemAvailability availability = getFresh(itemId, now);
+                if (availability != null) {
+                    availabilities.put(itemId, availability);
+                } else {
+                    missingItemIds.add(itemId);
+                }
+            }
+        }
+        if (missingItemIds.isEmpty()) {
+            return availabilities;
+        }
+        // Загрузка частями, чтобы не держать в памяти бронирования всех вещей списка сразу
+        for (int from = 0; from < missingItemIds.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = missingItemIds.subList(from, Math.min(from + LOAD_BATCH_SIZE, missingItemIds.size()));
+            long version = modifications.get();
+            loadAvailabilities(batch, LocalDateTime.now())
+                    .forEach((itemId, availability) -> availabilities.put(itemId, cache(itemId, availability, version)));
+        }
+        return availabilities;
+    }
+
+    private Map<Long, ItemAvailability> loadAvailabilities(Collection<Long> itemIds, LocalDateTime endAfter) {
+        Map<Long, List<BookingIntervalView>> itemIdToBookings =
+                bookingRepository.findIntervalsByItemIdIn(itemIds, TRACKED_STATUSES, endAfter).stream()
+                        .collect(Collectors.groupingBy(BookingIntervalView::getItemId));
+        Map<Long, ItemAvailability> availabilities = new HashMap<>();
+        for (Long itemId : itemIds) {
+            availabilities.put(itemId, new ItemAvailability(itemIdToBookings.getOrDefault(itemId, List.of())));
+        }
+        return availabilities;
+    }
+
+    // Вызывается под блокировкой itemIdToAvailability
+    private ItemAvailability getFresh(long itemId, long now) {
+        ItemAvailability availability = itemIdToAvailability.get(itemId);
+        if (availability != null && availability.isExpired(now, ttlNanos)) {
+            itemIdToAvailability.remove(itemId);
+            return null;
+        }
+        return availability;
+    }
+
+    private ItemAvailability cache(long itemId, ItemAvailability availability, long version) {
+        synchronized (itemIdToAvailability) {
+            ItemAvailability cached = getFresh(itemId, System.nanoTime());
+            if (cached != null) {
+                return cached;
+            }
+            if (modifications.get() == version) {
+                itemIdToAvailability.put(itemId, availability);
+            } else {
+                log.debug("Занятость вещи с ИД {} изменилась во время загрузки, в кэш не попадает.", itemId);
+            }
+            return availability;
+        }
+    }
+}
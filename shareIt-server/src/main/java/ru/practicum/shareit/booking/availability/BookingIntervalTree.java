@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+
+// АВЛ-дерево полуоткрытых интервалов [start, end), упорядоченных по началу и ид бронирования.
+// В каждом узле хранится наибольший конец в поддереве, поэтому поиск пересечения идёт по одному пути
+class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        root = insert(root, bookingId, start, end);
+    }
+
+    void remove(long bookingId, LocalDateTime start) {
+        root = delete(root, bookingId, start);
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return true;
+            }
+            // Если в левом поддереве есть конец позже start, то пересечение либо там, либо его нет совсем:
+            // иначе интервал с этим концом начинается не раньше end, как и всё правое поддерево
+            if (node.left != null && node.left.maxEnd.isAfter(start)) {
+                node = node.left;
+            } else if (node.start.isBefore(end)) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private Node insert(Node node, long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (node == null) {
+            size++;
+            return new Node(bookingId, start, end);
+        }
+        int compare = compare(bookingId, start, node);
+        if (compare < 0) {
+            node.left = insert(node.left, bookingId, start, end);
+        } else if (compare > 0) {
+            node.right = insert(node.right, bookingId, start, end);
+        } else {
+            node.end = end;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long bookingId, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int compare = compare(bookingId, start, node);
+        if (compare < 0) {
+            node.left = delete(node.left, bookingId, start);
+        } else if (compare > 0) {
+            node.right = delete(node.right, bookingId, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.bookingId = successor.bookingId;
+            node.start = successor.start;
+            node.end = successor.end;
+            // Преемник удаляется из правого поддерева, счётчик уже уменьшен
+            size++;
+            node.right = delete(node.right, successor.bookingId, successor.start);
+        }
+        return balance(node);
+    }
+
+    private int compare(long bookingId, LocalDateTime start, Node node) {
+        int compare = start.compareTo(node.start);
+        return compare != 0 ? compare : Long.compare(bookingId, node.bookingId);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+        private long bookingId;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Подтверждённые и ожидающие бронирования одной вещи
+class ItemAvailability {
+    private final long loadedAt = System.nanoTime();
+    private final BookingIntervalTree approved = new BookingIntervalTree();
+    private final BookingIntervalTree waiting = new BookingIntervalTree();
+    private final Map<Long, Interval> bookingIdToInterval = new HashMap<>();
+
+    ItemAvailability(List<BookingIntervalView> bookings) {
+        bookings.forEach(booking -> put(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus()));
+    }
+
+    synchronized void put(long bookingId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Interval previous = bookingIdToInterval.remove(bookingId);
+        if (previous != null) {
+            tree(previous.status).remove(bookingId, previous.start);
+        }
+        if (status != BookingStatus.APPROVED && status != BookingStatus.WAITING) {
+            return;
+        }
+        bookingIdToInterval.put(bookingId, new Interval(start, status));
+        tree(status).add(bookingId, start, end);
+    }
+
+    synchronized boolean isFree(LocalDateTime start, LocalDateTime end, boolean countWaiting) {
+        return !approved.overlaps(start, end) && !(countWaiting && waiting.overlaps(start, end));
+    }
+
+    boolean isExpired(long now, long ttlNanos) {
+        return now - loadedAt >= ttlNanos;
+    }
+
+    synchronized int size() {
+        return bookingIdToInterval.size();
+    }
+
+    private BookingIntervalTree tree(BookingStatus status) {
+        return status == BookingStatus.APPROVED ? approved : waiting;
+    }
+
+    private static class Interval {
+        private final LocalDateTime start;
+        private final BookingStatus status;
+
+        private Interval(LocalDateTime start, BookingStatus status) {
+            this.start = start;
+            this.status = status;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,8 +12,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingCursorMapper;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.params.PageRequestParams;
 
@@ -22,6 +26,10 @@ import java.util.List;
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SORT_BY_START = "start";
+    private static final String SORT_BY_ID = "id";
+
     private final BookingService bookingService;
 
     @PostMapping
@@ -30,6 +38,12 @@ public class BookingController {
         return bookingService.addBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto createBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                         @RequestBody List<BookingDto> bookingDtos) {
+        return bookingService.addBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @PathVariable long bookingId,
@@ -44,22 +58,49 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
-                                                    @RequestParam BookingState state,
-                                                    @RequestParam int from,
-                                                    @RequestParam int size) {
-        final String sortBy = "start";
-        final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.DESC, sortBy);
-        return bookingService.getAllBookingByBookerId(bookerId, state, pageRequestParams);
+    public ResponseEntity<List<BookingDto>> getAllBookingByBookerId(@RequestHeader("X-Sharer-User-Id") long bookerId,
+                                                                    @RequestParam BookingState state,
+                                                                    @RequestParam int from,
+                                                                    @RequestParam int size,
+                                                                    @RequestParam(required = false) String after) {
+        List<BookingDto> bookingDtos;
+        if (after != null) {
+            BookingCursor bookingCursor = BookingCursorMapper.toBookingCursor(after);
+            bookingDtos = bookingService.getAllBookingByBookerIdAfter(bookerId, state, bookingCursor, size);
+        } else {
+            final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.DESC,
+                    SORT_BY_START, SORT_BY_ID);
+            bookingDtos = bookingService.getAllBookingByBookerId(bookerId, state, pageRequestParams);
+        }
+        return withNextCursor(bookingDtos, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingByOwnerId(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                   @RequestParam BookingState state,
-                                                   @RequestParam int from,
-                                                   @RequestParam int size) {
-        final String sortBy = "start";
-        final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.DESC, sortBy);
-        return bookingService.getAllBookingByOwnerId(ownerId, state, pageRequestParams);
+    public ResponseEntity<List<BookingDto>> getAllBookingByOwnerId(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                   @RequestParam BookingState state,
+                                                                   @RequestParam int from,
+                                                                   @RequestParam int size,
+                                                                   @RequestParam(required = false) String after) {
+        List<BookingDto> bookingDtos;
+        if (after != null) {
+            BookingCursor bookingCursor = BookingCursorMapper.toBookingCursor(after);
+            bookingDtos = bookingService.getAllBookingByOwnerIdAfter(ownerId, state, bookingCursor, size);
+        } else {
+            final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.DESC,
+                    SORT_BY_START, SORT_BY_ID);
+            bookingDtos = bookingService.getAllBookingByOwnerId(ownerId, state, pageRequestParams);
+        }
+        return withNextCursor(bookingDtos, size);
+    }
+
+    // Курсор следующей страницы возвращается в заголовке, чтобы не менять формат ответа
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookingDtos, int size) {
+        String nextCursor = BookingCursorMapper.toNextToken(bookingDtos, size);
+        if (nextCursor == null) {
+            return ResponseEntity.ok(bookingDtos);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .body(bookingDtos);
     }
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Позиция последнего бронирования страницы в порядке start desc, id desc
+@Data
+@AllArgsConstructor
+public class BookingCursor {
+    private LocalDateTime start;
+    private long id;
+}
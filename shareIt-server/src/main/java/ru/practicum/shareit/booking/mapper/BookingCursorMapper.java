@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.mapper;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.exception.NotValidException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+@Slf4j
+@UtilityClass
+public class BookingCursorMapper {
+    private static final String SEPARATOR = "_";
+
+    public static String toToken(BookingDto bookingDto) {
+        String value = bookingDto.getStart() + SEPARATOR + bookingDto.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String toNextToken(List<BookingDto> bookingDtos, int size) {
+        if (bookingDtos.size() < size) {
+            return null;
+        }
+        return toToken(bookingDtos.get(bookingDtos.size() - 1));
+    }
+
+    public static BookingCursor toBookingCursor(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Long.parseLong(value.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            log.error("Некорректный курсор {}.", token);
+            throw new NotValidException(String.format("Некорректный курсор %s.", token));
+        }
+    }
+}
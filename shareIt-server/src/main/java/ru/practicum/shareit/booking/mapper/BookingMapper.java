@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.mapper;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -47,6 +48,15 @@ public class BookingMapper {
         );
     }
 
+    public static BookingResponseDto toBookingResponseDto(ItemBookingView itemBookingView) {
+        return new BookingResponseDto(itemBookingView.getId(),
+                itemBookingView.getBookerId(),
+                itemBookingView.getStartDate(),
+                itemBookingView.getEndDate(),
+                itemBookingView.getStatus()
+        );
+    }
+
     public static List<BookingDto> toBookingDtos(List<Booking> bookings) {
         return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
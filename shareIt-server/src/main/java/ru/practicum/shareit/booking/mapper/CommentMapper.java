@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
@@ -18,7 +19,20 @@ public class CommentMapper {
         );
     }
 
+    public static CommentDto toCommentDto(ItemCommentView itemCommentView) {
+        return new CommentDto(
+                itemCommentView.getId(),
+                itemCommentView.getText(),
+                itemCommentView.getAuthorName(),
+                itemCommentView.getCreated()
+        );
+    }
+
     public static List<CommentDto> toCommentDtos(List<Comment> comments) {
         return comments.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
     }
+
+    public static List<CommentDto> toCommentDtosFromViews(List<ItemCommentView> itemCommentViews) {
+        return itemCommentViews.stream().map(CommentMapper::toCommentDto).collect(Collectors.toList());
+    }
 }
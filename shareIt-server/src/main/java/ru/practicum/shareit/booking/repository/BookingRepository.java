@@ -1,54 +1,168 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBooker_IdAndEndIsBefore(long bookerId, LocalDateTime end, PageRequest pageRequest);
+    // Условие по b.booker.id, а не по псевдониму join fetch: так фильтр идёт по bookings.booker_id и индексу
+    String BOOKER = "select b from Booking as b " +
+            "join fetch b.item " +
+            "join fetch b.booker " +
+            "where b.booker.id = ?1 ";
+    String BOOKER_AFTER = BOOKER +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) ";
+    String OWNER_AFTER = "select b from Booking as b " +
+            "join fetch b.item as it " +
+            "join fetch b.booker " +
+            "where it.owner.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) ";
+    String ORDER_BY_START_AND_ID = "order by b.start desc, b.id desc";
 
-    Page<Booking> findByBooker_IdAndStartIsAfter(long bookerId, LocalDateTime start, PageRequest pageRequest);
+    @Query(value = BOOKER + "and b.end < ?2")
+    Slice<Booking> findByBooker_IdAndEndIsBefore(long bookerId, LocalDateTime end, PageRequest pageRequest);
 
-    @Query(value = "select b from Booking as b " +
-            "where b.booker.id = ?1 " +
-            "and ?2 between b.start and b.end")
-    Page<Booking> findAllByBookerIdWithStateCurrent(long bookerId, LocalDateTime now, PageRequest pageRequest);
+    @Query(value = BOOKER + "and b.start > ?2")
+    Slice<Booking> findByBooker_IdAndStartIsAfter(long bookerId, LocalDateTime start, PageRequest pageRequest);
 
-    Page<Booking> findByBooker_IdAndStatusEquals(long bookerId, BookingStatus bookingStatus, PageRequest pageRequest);
+    @Query(value = BOOKER + "and ?2 between b.start and b.end")
+    Slice<Booking> findAllByBookerIdWithStateCurrent(long bookerId, LocalDateTime now, PageRequest pageRequest);
 
-    Page<Booking> findByBooker_Id(long bookerId, PageRequest pageRequest);
+    @Query(value = BOOKER + "and b.status = ?2")
+    Slice<Booking> findByBooker_IdAndStatusEquals(long bookerId, BookingStatus bookingStatus, PageRequest pageRequest);
+
+    @Query(value = BOOKER)
+    Slice<Booking> findByBooker_Id(long bookerId, PageRequest pageRequest);
 
     @Query(value = "select b from Booking as b " +
-            "where b.item.owner.id = ?1 " +
+            "join fetch b.item as it " +
+            "join fetch b.booker " +
+            "where it.owner.id = ?1 " +
             "and b.end < ?2")
-    Page<Booking> findByOwnerIdWithStatePast(long ownerId, LocalDateTime now, PageRequest pageRequest);
+    Slice<Booking> findByOwnerIdWithStatePast(long ownerId, LocalDateTime now, PageRequest pageRequest);
 
     @Query(value = "select b from Booking as b " +
-            "where b.item.owner.id = ?1 " +
+            "join fetch b.item as it " +
+            "join fetch b.booker " +
+            "where it.owner.id = ?1 " +
             "and b.end > ?2")
-    Page<Booking> findByOwnerIdWithStateFuture(long ownerId, LocalDateTime now, PageRequest pageRequest);
+    Slice<Booking> findByOwnerIdWithStateFuture(long ownerId, LocalDateTime now, PageRequest pageRequest);
 
     @Query(value = "select b from Booking as b " +
-            "where b.item.owner.id = ?1 " +
+            "join fetch b.item as it " +
+            "join fetch b.booker " +
+            "where it.owner.id = ?1 " +
             "and ?2 between b.start and b.end")
-    Page<Booking> findByByOwnerIdWithStateCurrent(long ownerId, LocalDateTime now, PageRequest pageRequest);
+    Slice<Booking> findByByOwnerIdWithStateCurrent(long ownerId, LocalDateTime now, PageRequest pageRequest);
 
     @Query(value = "select b from Booking as b " +
-            "where b.item.owner.id = ?1 " +
+            "join fetch b.item as it " +
+            "join fetch b.booker " +
+            "where it.owner.id = ?1 " +
             "and b.status = ?2")
-    Page<Booking> findByOwnerIdAndStatus(long bookerId, BookingStatus bookingStatus, PageRequest pageRequest);
+    Slice<Booking> findByOwnerIdAndStatus(long bookerId, BookingStatus bookingStatus, PageRequest pageRequest);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findByItemOwnerId(long bookerId, PageRequest pageRequest);
+
+    @Query(value = BOOKER_AFTER + ORDER_BY_START_AND_ID)
+    List<Booking> findByBookerIdAfter(long bookerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(value = BOOKER_AFTER + "and b.end < ?4 " + ORDER_BY_START_AND_ID)
+    List<Booking> findByBookerIdWithStatePastAfter(long bookerId, LocalDateTime start, long id, LocalDateTime now,
+            Pageable pageable);
+
+    @Query(value = BOOKER_AFTER + "and b.start > ?4 " + ORDER_BY_START_AND_ID)
+    List<Booking> findByBookerIdWithStateFutureAfter(long bookerId, LocalDateTime start, long id, LocalDateTime now,
+            Pageable pageable);
+
+    @Query(value = BOOKER_AFTER + "and ?4 between b.start and b.end " + ORDER_BY_START_AND_ID)
+    List<Booking> findByBookerIdWithStateCurrentAfter(long bookerId, LocalDateTime start, long id, LocalDateTime now,
+            Pageable pageable);
 
-    Page<Booking> findByItemOwnerId(long bookerId, PageRequest pageRequest);
+    @Query(value = BOOKER_AFTER + "and b.status = ?4 " + ORDER_BY_START_AND_ID)
+    List<Booking> findByBookerIdAndStatusAfter(long bookerId, LocalDateTime start, long id, BookingStatus bookingStatus,
+            Pageable pageable);
 
-    List<Booking> findByItemId(long itemId);
+    @Query(value = OWNER_AFTER + ORDER_BY_START_AND_ID)
+    List<Booking> findByOwnerIdAfter(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(value = OWNER_AFTER + "and b.end < ?4 " + ORDER_BY_START_AND_ID)
+    List<Booking> findByOwnerIdWithStatePastAfter(long ownerId, LocalDateTime start, long id, LocalDateTime now,
+            Pageable pageable);
+
+    @Query(value = OWNER_AFTER + "and b.start > ?4 " + ORDER_BY_START_AND_ID)
+    List<Booking> findByOwnerIdWithStateFutureAfter(long ownerId, LocalDateTime start, long id, LocalDateTime now,
+            Pageable pageable);
+
+    @Query(value = OWNER_AFTER + "and ?4 between b.start and b.end " + ORDER_BY_START_AND_ID)
+    List<Booking> findByOwnerIdWithStateCurrentAfter(long ownerId, LocalDateTime start, long id, LocalDateTime now,
+            Pageable pageable);
+
+    @Query(value = OWNER_AFTER + "and b.status = ?4 " + ORDER_BY_START_AND_ID)
+    List<Booking> findByOwnerIdAndStatusAfter(long ownerId, LocalDateTime start, long id, BookingStatus bookingStatus,
+            Pageable pageable);
+
+    @Query(value = "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, " +
+            "b.start_date as startDate, b.end_date as endDate, b.status as status " +
+            "from (select bk.*, row_number() over (" +
+            "partition by case when bk.start_date > ?2 then 1 else 0 end " +
+            "order by case when bk.start_date > ?2 then bk.start_date end, " +
+            "case when bk.start_date < ?2 then bk.end_date end desc) as rn " +
+            "from bookings as bk " +
+            "where bk.item_id = ?1 " +
+            "and bk.status = 'APPROVED' " +
+            "and bk.start_date <> ?2) as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedByItemId(long itemId, LocalDateTime now);
+
+    @Query(value = "select b.id as id, b.item_id as itemId, b.booker_id as bookerId, " +
+            "b.start_date as startDate, b.end_date as endDate, b.status as status " +
+            "from (select bk.*, row_number() over (" +
+            "partition by bk.item_id, case when bk.start_date > ?2 then 1 else 0 end " +
+            "order by case when bk.start_date > ?2 then bk.start_date end, " +
+            "case when bk.start_date < ?2 then bk.end_date end desc) as rn " +
+            "from bookings as bk " +
+            "where bk.item_id in (?1) " +
+            "and bk.status = 'APPROVED' " +
+            "and bk.start_date <> ?2) as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedByItemIdIn(List<Long> itemIds, LocalDateTime now);
 
     List<Booking> findByItemIdAndBookerId(long itemId, long bookerId);
 
-    List<Booking> findByItemIdIn(List<Long> itemIds);
+    @Query(value = "select count(b) > 0 from Booking as b " +
+            "where b.item.id = ?1 " +
+            "and b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "and b.start < ?3 " +
+            "and b.end > ?2 " +
+            "and b.id <> ?4")
+    boolean existsApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end, long excludedBookingId);
+
+    @Query(value = "select b.id as id, b.item.id as itemId, b.start as start, b.end as end, b.status as status " +
+            "from Booking as b " +
+            "where b.item.id = ?1 " +
+            "and b.status in ?2 " +
+            "and b.end > ?3")
+    List<BookingIntervalView> findIntervalsByItemId(long itemId, Collection<BookingStatus> statuses,
+                                                    LocalDateTime endAfter);
+
+    @Query(value = "select b.id as id, b.item.id as itemId, b.start as start, b.end as end, b.status as status " +
+            "from Booking as b " +
+            "where b.item.id in ?1 " +
+            "and b.status in ?2 " +
+            "and b.end > ?3")
+    List<BookingIntervalView> findIntervalsByItemIdIn(Collection<Long> itemIds, Collection<BookingStatus> statuses,
+                                                      LocalDateTime endAfter);
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.params.PageRequestParams;
 
@@ -9,6 +11,8 @@ import java.util.List;
 public interface BookingService {
     BookingDto addBooking(long userId, BookingDto bookingDto);
 
+    BatchResultDto addBookings(long userId, List<BookingDto> bookingDtos);
+
     BookingDto approveBooking(long userId, long bookingId, boolean approved);
 
     BookingDto getBookingById(long userId, long bookingId);
@@ -16,4 +20,8 @@ public interface BookingService {
     List<BookingDto> getAllBookingByBookerId(long bookerId, BookingState bookingState, PageRequestParams pageRequestParams);
 
     List<BookingDto> getAllBookingByOwnerId(long ownerId, BookingState bookingState, PageRequestParams pageRequestParams);
+
+    List<BookingDto> getAllBookingByBookerIdAfter(long bookerId, BookingState bookingState, BookingCursor after, int size);
+
+    List<BookingDto> getAllBookingByOwnerIdAfter(long ownerId, BookingState bookingState, BookingCursor after, int size);
 }
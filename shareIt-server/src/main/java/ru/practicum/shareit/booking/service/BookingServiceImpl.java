@@ -1,12 +1,18 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.batch.BatchImport;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -17,51 +23,109 @@ import ru.practicum.shareit.exception.NotOwnerOrBookerException;
 import ru.practicum.shareit.exception.NotValidException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.MetricsConfig;
 import ru.practicum.shareit.params.PageRequestParams;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final BookingRepository bookingRepository;
+    private final LastNextBookingTracker lastNextBookingTracker;
+    private final ItemBookingLocks itemBookingLocks;
+    private final BookingAvailabilityService bookingAvailabilityService;
 
     @Override
     @Transactional
     public BookingDto addBooking(long bookerId, BookingDto bookingDto) {
-        User user = isUserPresent(bookerId);
+        User user = userLookup.getUser(bookerId);
         Item item = isItemPresent(bookingDto.getItemId());
         isBookingValid(bookerId, item);
+        isItemAvailable(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
         Booking booking = BookingMapper.toBooking(bookingDto);
         booking.setItem(item);
         booking.setBooker(user);
         booking.setStatus(BookingStatus.WAITING);
         Booking savedBooking = bookingRepository.save(booking);
+        bookingAvailabilityService.onBookingSaved(savedBooking);
         log.info("Добавлено бронирование с ID = {}", savedBooking.getId());
         return BookingMapper.toBookingDto(savedBooking);
     }
 
+    @Override
+    @Transactional
+    public BatchResultDto addBookings(long bookerId, List<BookingDto> bookingDtos) {
+        User user = userLookup.getUser(bookerId);
+        Map<Long, Item> items = itemRepository.findAllById(bookingDtos.stream()
+                        .filter(Objects::nonNull)
+                        .map(BookingDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        BatchImport<Booking> batchImport = new BatchImport<>(bookingDtos.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            if (batchImport.rejectIfEmpty(i, bookingDto)) {
+                continue;
+            }
+            try {
+                isBookingDatesValid(bookingDto, now);
+                Item item = isItemPresent(items, bookingDto.getItemId());
+                isBookingValid(bookerId, item);
+                isItemAvailable(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+                batchImport.accept(i, new Booking(null, bookingDto.getStart(), bookingDto.getEnd(), item, user,
+                        BookingStatus.WAITING));
+            } catch (NotValidException | NotFoundException | NotOwnerOrBookerException | ItemAlreadyBookedException e) {
+                batchImport.reject(i, e.getMessage());
+            }
+        }
+        List<Booking> savedBookings = batchImport.save(bookingRepository::saveAllAndFlush);
+        savedBookings.forEach(bookingAvailabilityService::onBookingSaved);
+        BatchResultDto result = batchImport.toResult(savedBookings, Booking::getId);
+        log.info("Пакетный импорт бронирований пользователя с ID {}: добавлено {}, отклонено {}.", bookerId,
+                result.getCreated(), result.getRejected());
+        return result;
+    }
+
     @Override
     @Transactional
     public BookingDto approveBooking(long userId, long bookingId, boolean approved) {
-        isUserPresent(userId);
+        userLookup.getUser(userId);
         Booking booking = isBookingPresent(bookingId);
         isUserOwner(userId, booking);
         isBookingApproved(booking);
         if (approved) {
+            itemBookingLocks.lockUntilTransactionEnd(booking.getItem().getId());
+            isItemFree(booking.getItem().getId(), booking.getStart(), booking.getEnd(), bookingId);
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
-        bookingRepository.save(booking);
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            // Пересечение, подтверждённое на другом узле, отсекает ограничение bookings_approved_no_overlap
+            log.error("Вещь с ИД {} уже забронирована на эти даты.", booking.getItem().getId());
+            throw new ItemAlreadyBookedException(String.format("Вещь с ИД %d уже забронирована на эти даты.",
+                    booking.getItem().getId()));
+        }
+        bookingAvailabilityService.onBookingSaved(booking);
+        lastNextBookingTracker.onBookingApproved(booking);
         log.info("Бронирование с ID = {} одобрено владельцем вещи.", bookingId);
         return BookingMapper.toBookingDto(booking);
     }
@@ -69,7 +133,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingDto getBookingById(long userId, long bookingId) {
         Booking booking = isBookingPresent(bookingId);
-        isUserPresent(userId);
+        userLookup.getUser(userId);
         isUserOwnerOrBooker(userId, booking);
         log.info("Бронирование с ID {} возвращено.", bookingId);
         return BookingMapper.toBookingDto(booking);
@@ -77,29 +141,29 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllBookingByBookerId(long bookerId, BookingState bookingState, PageRequestParams pageRequestParams) {
-        isUserPresent(bookerId);
-        Page<Booking> bookingsPage;
+        userLookup.getUser(bookerId);
+        Slice<Booking> bookingsSlice;
         PageRequest pageRequest = pageRequestParams.getPageRequest();
         switch (bookingState) {
             case PAST:
-                bookingsPage = bookingRepository.findByBooker_IdAndEndIsBefore(bookerId, LocalDateTime.now(), pageRequest);
+                bookingsSlice = bookingRepository.findByBooker_IdAndEndIsBefore(bookerId, LocalDateTime.now(), pageRequest);
                 break;
             case FUTURE:
-                bookingsPage = bookingRepository.findByBooker_IdAndStartIsAfter(bookerId, LocalDateTime.now(), pageRequest);
+                bookingsSlice = bookingRepository.findByBooker_IdAndStartIsAfter(bookerId, LocalDateTime.now(), pageRequest);
                 break;
             case CURRENT:
-                bookingsPage = bookingRepository.findAllByBookerIdWithStateCurrent(bookerId, LocalDateTime.now(), pageRequest);
+                bookingsSlice = bookingRepository.findAllByBookerIdWithStateCurrent(bookerId, LocalDateTime.now(), pageRequest);
                 break;
             case WAITING:
-                bookingsPage = bookingRepository.findByBooker_IdAndStatusEquals(bookerId, BookingStatus.WAITING, pageRequest);
+                bookingsSlice = bookingRepository.findByBooker_IdAndStatusEquals(bookerId, BookingStatus.WAITING, pageRequest);
                 break;
             case REJECTED:
-                bookingsPage = bookingRepository.findByBooker_IdAndStatusEquals(bookerId, BookingStatus.REJECTED, pageRequest);
+                bookingsSlice = bookingRepository.findByBooker_IdAndStatusEquals(bookerId, BookingStatus.REJECTED, pageRequest);
                 break;
             default:
-                bookingsPage = bookingRepository.findByBooker_Id(bookerId, pageRequest);
+                bookingsSlice = bookingRepository.findByBooker_Id(bookerId, pageRequest);
         }
-        List<BookingDto> bookingDtos = BookingMapper.toBookingDtos(bookingsPage.getContent());
+        List<BookingDto> bookingDtos = BookingMapper.toBookingDtos(bookingsSlice.getContent());
         log.info("Список бронирований в состоянии {} пользователя с ид {} с номера {} размером {} возвращён.",
                 bookingState, bookerId, pageRequestParams.getFrom(), pageRequestParams.getSize());
         return bookingDtos;
@@ -107,34 +171,104 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllBookingByOwnerId(long ownerId, BookingState bookingState, PageRequestParams pageRequestParams) {
-        isUserPresent(ownerId);
-        Page<Booking> bookingsPage;
+        userLookup.getUser(ownerId);
+        Slice<Booking> bookingsSlice;
         PageRequest pageRequest = pageRequestParams.getPageRequest();
         switch (bookingState) {
             case PAST:
-                bookingsPage = bookingRepository.findByOwnerIdWithStatePast(ownerId, LocalDateTime.now(), pageRequest);
+                bookingsSlice = bookingRepository.findByOwnerIdWithStatePast(ownerId, LocalDateTime.now(), pageRequest);
                 break;
             case FUTURE:
-                bookingsPage = bookingRepository.findByOwnerIdWithStateFuture(ownerId, LocalDateTime.now(), pageRequest);
+                bookingsSlice = bookingRepository.findByOwnerIdWithStateFuture(ownerId, LocalDateTime.now(), pageRequest);
                 break;
             case CURRENT:
-                bookingsPage = bookingRepository.findByByOwnerIdWithStateCurrent(ownerId, LocalDateTime.now(), pageRequest);
+                bookingsSlice = bookingRepository.findByByOwnerIdWithStateCurrent(ownerId, LocalDateTime.now(), pageRequest);
                 break;
             case WAITING:
-                bookingsPage = bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, pageRequest);
+                bookingsSlice = bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, pageRequest);
                 break;
             case REJECTED:
-                bookingsPage = bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, pageRequest);
+                bookingsSlice = bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, pageRequest);
                 break;
             default:
-                bookingsPage = bookingRepository.findByItemOwnerId(ownerId, pageRequest);
+                bookingsSlice = bookingRepository.findByItemOwnerId(ownerId, pageRequest);
         }
-        List<BookingDto> bookingDtos = BookingMapper.toBookingDtos(bookingsPage.getContent());
+        List<BookingDto> bookingDtos = BookingMapper.toBookingDtos(bookingsSlice.getContent());
         log.info("Список бронирований в состоянии {} владельца вещей с ид {} с номера {} размером {} возвращён.",
                 bookingState, ownerId, pageRequestParams.getFrom(), pageRequestParams.getSize());
         return bookingDtos;
     }
 
+    @Override
+    public List<BookingDto> getAllBookingByBookerIdAfter(long bookerId, BookingState bookingState, BookingCursor after, int size) {
+        userLookup.getUser(bookerId);
+        List<Booking> bookings;
+        PageRequest limit = PageRequest.of(0, size);
+        switch (bookingState) {
+            case PAST:
+                bookings = bookingRepository.findByBookerIdWithStatePastAfter(bookerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), limit);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findByBookerIdWithStateFutureAfter(bookerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), limit);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findByBookerIdWithStateCurrentAfter(bookerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), limit);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findByBookerIdAndStatusAfter(bookerId, after.getStart(), after.getId(),
+                        BookingStatus.WAITING, limit);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findByBookerIdAndStatusAfter(bookerId, after.getStart(), after.getId(),
+                        BookingStatus.REJECTED, limit);
+                break;
+            default:
+                bookings = bookingRepository.findByBookerIdAfter(bookerId, after.getStart(), after.getId(), limit);
+        }
+        List<BookingDto> bookingDtos = BookingMapper.toBookingDtos(bookings);
+        log.info("Список бронирований в состоянии {} пользователя с ид {} после {} размером {} возвращён.",
+                bookingState, bookerId, after, size);
+        return bookingDtos;
+    }
+
+    @Override
+    public List<BookingDto> getAllBookingByOwnerIdAfter(long ownerId, BookingState bookingState, BookingCursor after, int size) {
+        userLookup.getUser(ownerId);
+        List<Booking> bookings;
+        PageRequest limit = PageRequest.of(0, size);
+        switch (bookingState) {
+            case PAST:
+                bookings = bookingRepository.findByOwnerIdWithStatePastAfter(ownerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), limit);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findByOwnerIdWithStateFutureAfter(ownerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), limit);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findByOwnerIdWithStateCurrentAfter(ownerId, after.getStart(), after.getId(),
+                        LocalDateTime.now(), limit);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findByOwnerIdAndStatusAfter(ownerId, after.getStart(), after.getId(),
+                        BookingStatus.WAITING, limit);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findByOwnerIdAndStatusAfter(ownerId, after.getStart(), after.getId(),
+                        BookingStatus.REJECTED, limit);
+                break;
+            default:
+                bookings = bookingRepository.findByOwnerIdAfter(ownerId, after.getStart(), after.getId(), limit);
+        }
+        List<BookingDto> bookingDtos = BookingMapper.toBookingDtos(bookings);
+        log.info("Список бронирований в состоянии {} владельца вещей с ид {} после {} размером {} возвращён.",
+                bookingState, ownerId, after, size);
+        return bookingDtos;
+    }
+
     private void isBookingValid(long bookerId,
                                 Item item) {
         if (item.getOwner().getId() == bookerId) {
@@ -148,6 +282,28 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    // Индекс в памяти - только подсказка: свободный интервал окончательно проверяет подтверждение под блокировкой
+    // вещи, а занятый перепроверяется по БД, ведь бронирование могли отклонить на другом экземпляре
+    private void isItemAvailable(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingAvailabilityService.isFree(itemId, start, end, false)) {
+            return;
+        }
+        if (!bookingRepository.existsApprovedOverlap(itemId, start, end, 0)) {
+            log.warn("Занятость вещи с ИД {} в памяти разошлась с БД и сброшена.", itemId);
+            bookingAvailabilityService.invalidate(itemId);
+            return;
+        }
+        log.error("Вещь с ИД {} уже забронирована на эти даты.", itemId);
+        throw new ItemAlreadyBookedException(String.format("Вещь с ИД %d уже забронирована на эти даты.", itemId));
+    }
+
+    private void isItemFree(long itemId, LocalDateTime start, LocalDateTime end, long bookingId) {
+        if (bookingRepository.existsApprovedOverlap(itemId, start, end, bookingId)) {
+            log.error("Вещь с ИД {} уже забронирована на эти даты.", itemId);
+            throw new ItemAlreadyBookedException(String.format("Вещь с ИД %d уже забронирована на эти даты.", itemId));
+        }
+    }
+
     private void isUserOwner(long userId, Booking booking) {
         long ownerId = booking.getItem().getOwner().getId();
         if (userId != ownerId) {
@@ -166,15 +322,6 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    private User isUserPresent(long userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
-            log.error("Пользователь с ИД {} отсутствует в БД.", userId);
-            throw new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId));
-        }
-        return optionalUser.get();
-    }
-
     private Item isItemPresent(long itemId) {
         Optional<Item> optionalItem = itemRepository.findById(itemId);
         if (optionalItem.isEmpty()) {
@@ -184,6 +331,29 @@ public class BookingServiceImpl implements BookingService {
         return optionalItem.get();
     }
 
+    private Item isItemPresent(Map<Long, Item> items, Long itemId) {
+        if (itemId == null) {
+            log.error("Не указана вещь для бронирования.");
+            throw new NotValidException("Не указана вещь для бронирования.");
+        }
+        Item item = items.get(itemId);
+        if (item == null) {
+            log.error("Вещь с ИД {} отсутствует в БД.", itemId);
+            throw new NotFoundException(String.format("Вещь с ИД %d отсутствует в БД.", itemId));
+        }
+        return item;
+    }
+
+    private void isBookingDatesValid(BookingDto bookingDto, LocalDateTime now) {
+        if (bookingDto.getStart() == null
+                || bookingDto.getEnd() == null
+                || bookingDto.getStart().isBefore(now)
+                || !bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            log.error("Даты бронирования заданы неверно.");
+            throw new NotValidException("Даты бронирования заданы неверно.");
+        }
+    }
+
     private Booking isBookingPresent(long bookingId) {
         Optional<Booking> optionalBooking = bookingRepository.findById(bookingId);
         if (optionalBooking.isEmpty()) {
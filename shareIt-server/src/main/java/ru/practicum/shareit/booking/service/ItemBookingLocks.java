@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Сериализует бронирования одной вещи внутри JVM, между узлами пересечения отсекает ограничение в БД
+@Component
+public class ItemBookingLocks {
+    private final ReentrantLock[] stripes;
+
+    public ItemBookingLocks(@Value("${shareit.booking.lock-stripes}") int stripesCount) {
+        stripes = new ReentrantLock[stripesCount];
+        for (int i = 0; i < stripesCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Блокировка снимается только после фиксации транзакции, иначе следующий поток не увидит подтверждение
+    public void lockUntilTransactionEnd(long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции.");
+        }
+        ReentrantLock lock = stripes[(int) Math.floorMod(itemId, (long) stripes.length)];
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
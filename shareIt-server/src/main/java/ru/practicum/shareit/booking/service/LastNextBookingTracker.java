@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.cache.SecondLevelCacheInvalidator;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class LastNextBookingTracker {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+
+    // Вещь меняется в сессии, а не нативным update: Hibernate обновит в кэше второго уровня только её запись.
+    // Подтверждения одной вещи выполняются под её блокировкой, а пропущенное на другом узле исправит rebuild
+    public void onBookingApproved(Booking booking) {
+        if (booking.getStatus() != BookingStatus.APPROVED) {
+            return;
+        }
+        Item item = booking.getItem();
+        if (booking.getStart().isAfter(LocalDateTime.now())) {
+            Booking nextBooking = item.getNextBooking();
+            if (nextBooking == null || nextBooking.getStart().isAfter(booking.getStart())) {
+                item.setNextBooking(booking);
+            }
+        } else {
+            Booking lastBooking = item.getLastBooking();
+            if (lastBooking == null || lastBooking.getEnd().isBefore(booking.getEnd())) {
+                item.setLastBooking(booking);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.last-next-booking.roll-delay}")
+    public void rollStartedBookings() {
+        int updated = itemRepository.refreshWhereNextBookingStarted(LocalDateTime.now());
+        if (updated > 0) {
+            secondLevelCacheInvalidator.afterBulkUpdate(Item.class);
+            log.info("Последнее и следующее бронирование пересчитаны для {} вещей.", updated);
+        }
+    }
+
+    @Scheduled(cron = "${shareit.last-next-booking.rebuild-cron}")
+    public int rebuild() {
+        Long maxId = itemRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int fixed = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += REBUILD_BATCH_SIZE) {
+            fixed += itemRepository.rebuildWhereInconsistent(now, fromId, fromId + REBUILD_BATCH_SIZE - 1);
+        }
+        if (fixed > 0) {
+            secondLevelCacheInvalidator.afterBulkUpdate(Item.class);
+            log.warn("Исправлено расхождений последнего и следующего бронирования: {}.", fixed);
+        } else {
+            log.info("Расхождений последнего и следующего бронирования не найдено.");
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.cache;
+
+// Рассылка изменений кэшируемых сущностей другим экземплярам сервиса, например через брокер сообщений.
+// Получатель сбрасывает записи у себя через SecondLevelCacheInvalidator.evict и evictAll
+public interface CacheInvalidationHook {
+    void entityChanged(Class<?> entityClass, Object id);
+
+    void entitiesChanged(Class<?> entityClass);
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+// Сильный ETag по хэшу тела для часто читаемых вещи, пользователя и запроса: на совпавший If-None-Match
+// отвечает 304 без тела. Хэш, а не версия строки: в ответ по вещи входят комментарии и бронирования
+@Component
+public class ResourceETagFilter extends ShallowEtagHeaderFilter {
+    private static final Pattern RESOURCE_PATH = Pattern.compile("/(items|users|requests)/\\d+");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod())
+                || !RESOURCE_PATH.matcher(request.getRequestURI()).matches();
+    }
+}
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.Map;
+
+// Локальный кэш второго уровня Hibernate поддерживает сам, а об изменениях после фиксации сообщается
+// подключённым CacheInvalidationHook, чтобы другие экземпляры сбросили устаревшие записи
+@Slf4j
+@Component
+public class SecondLevelCacheInvalidator implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    private final transient EntityManagerFactory entityManagerFactory;
+    private final transient ObjectProvider<CacheInvalidationHook> hooks;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       ObjectProvider<CacheInvalidationHook> hooks) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.hooks = hooks;
+    }
+
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        eventListenerRegistry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    // Для нативных update плановых пересчётов: локальный регион Hibernate сбрасывает сам
+    public void afterBulkUpdate(Class<?> entityClass) {
+        afterCommit(() -> hooks.orderedStream().forEach(hook -> hook.entitiesChanged(entityClass)));
+    }
+
+    // Для строк, которые удаляет или меняет каскад в БД: Hibernate о них не знает, поэтому после фиксации они удаляются
+    // из кэша по ИД и локально, и у других экземпляров. Остальные записи регионов остаются в кэше
+    public void afterCascadeDelete(Map<Class<?>, ? extends Collection<?>> idsByEntityClass) {
+        afterCommit(() -> {
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            idsByEntityClass.forEach((entityClass, ids) -> ids.forEach(id -> {
+                cache.evict(entityClass, id);
+                hooks.orderedStream().forEach(hook -> hook.entityChanged(entityClass, id));
+            }));
+            cache.evictDefaultQueryRegion();
+        });
+    }
+
+    // Вызывается при получении изменения от другого экземпляра. Сохранённые результаты запросов
+    // сбрасываются тоже: в них могла попасть или пропасть изменённая сущность
+    public void evict(Class<?> entityClass, Object id) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evict(entityClass, id);
+        cache.evictDefaultQueryRegion();
+        log.debug("Из кэша удалена сущность {} с ИД {}.", entityClass.getSimpleName(), id);
+    }
+
+    public void evictAll(Class<?> entityClass) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictEntityData(entityClass);
+        cache.evictDefaultQueryRegion();
+        log.debug("Из кэша удалены все сущности {}.", entityClass.getSimpleName());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        notifyHooks(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        notifyHooks(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        notifyHooks(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    private void notifyHooks(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        Class<?> entityClass = persister.getMappedClass();
+        hooks.orderedStream().forEach(hook -> hook.entityChanged(entityClass, id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
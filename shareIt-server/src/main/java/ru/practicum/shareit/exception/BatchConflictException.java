@@ -0,0 +1,14 @@
+package ru.practicum.shareit.exception;
+
+import lombok.Getter;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+
+@Getter
+public class BatchConflictException extends RuntimeException {
+    private final transient BatchResultDto result;
+
+    public BatchConflictException(String message, BatchResultDto result) {
+        super(message);
+        this.result = result;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,12 +12,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemGetResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.params.PageRequestParams;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -31,6 +34,12 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto createItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                      @RequestBody List<ItemDto> itemDtos) {
+        return itemService.addItems(userId, itemDtos);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
                               @RequestBody ItemDto itemDto,
@@ -57,9 +66,16 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> getItemsBySearch(@RequestParam String text,
                                           @RequestParam int from,
-                                          @RequestParam int size) {
+                                          @RequestParam int size,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeFrom,
+                                          @RequestParam(required = false)
+                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime freeTo) {
         final String sortBy = "id";
         final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.ASC, sortBy);
+        if (freeFrom != null || freeTo != null) {
+            return itemService.getFreeItemsBySearch(text, freeFrom, freeTo, pageRequestParams);
+        }
         return itemService.getItemsBySearch(text, pageRequestParams);
     }
 
@@ -1,12 +1,24 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemCommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemId(long itemId);
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
+    @Query(value = "select c.id as id, c.item_id as itemId, c.text as text, u.name as authorName, " +
+            "c.created as created " +
+            "from (select cm.*, row_number() over (partition by cm.item_id order by cm.created desc, cm.id desc) as rn " +
+            "from comments as cm " +
+            "where cm.item_id in (?1)) as c " +
+            "join users as u on u.id = c.author_id " +
+            "where c.rn <= ?2 " +
+            "order by c.item_id, c.id", nativeQuery = true)
+    List<ItemCommentView> findLatestByItemIdIn(List<Long> itemIds, int limitPerItem);
 }
@@ -1,23 +1,135 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Page<Item> findByOwnerId(long userId, PageRequest pageRequest);
+    // Вещь свободна, если на окно нет подтверждённых бронирований; проверка идёт по bookings_item_status_start_idx
+    String FREE = "and not exists (select b.id from Booking as b " +
+            "where b.item.id = it.id " +
+            "and b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "and b.start < ?3 " +
+            "and b.end > ?2)";
+    String FREE_NATIVE = "and not exists (select 1 from bookings as b " +
+            "where b.item_id = it.id " +
+            "and b.status = 'APPROVED' " +
+            "and b.start_date < ?3 " +
+            "and b.end_date > ?2) ";
+    String LAST_BOOKING_ID = "select b.id from bookings as b " +
+            "where b.item_id = items.id and b.status = 'APPROVED' and b.start_date < ?1 " +
+            "order by b.end_date desc limit 1";
+    String NEXT_BOOKING_ID = "select b.id from bookings as b " +
+            "where b.item_id = items.id and b.status = 'APPROVED' and b.start_date > ?1 " +
+            "order by b.start_date limit 1";
+    String REBUILD = "update items set " +
+            "last_booking_id = (" + LAST_BOOKING_ID + "), " +
+            "next_booking_id = (" + NEXT_BOOKING_ID + ") ";
+    String INCONSISTENT = "and (coalesce(items.last_booking_id, 0) <> coalesce((" + LAST_BOOKING_ID + "), 0) " +
+            "or coalesce(items.next_booking_id, 0) <> coalesce((" + NEXT_BOOKING_ID + "), 0))";
+
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    Slice<Item> findByOwnerId(long userId, PageRequest pageRequest);
+
+    // Вещи, которые каскад в БД удаляет вместе с пользователем: его собственные и созданные по его запросам
+    @Query("select it.id from Item as it left join it.request as r where it.owner.id = ?1 or r.requestor.id = ?1")
+    List<Long> findIdsByOwnerIdOrRequestorId(long userId);
+
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
+    Optional<Item> findWithLastAndNextBookingById(long itemId);
 
     @Query(value = "select it from Item as it " +
             "where it.available = true " +
             "and (UPPER(it.name) like UPPER(concat('%', ?1, '%')) " +
             "or UPPER(it.description) like UPPER(concat('%', ?1, '%')))")
-    Page<Item> findAllBySearch(String text, PageRequest pageRequest);
+    Slice<Item> findAllBySearch(String text, PageRequest pageRequest);
+
+    @Query(value = "select it.* from items as it " +
+            "where it.is_available = true " +
+            "and (setweight(to_tsvector('simple', it.name), 'A') || setweight(to_tsvector('simple', it.description), 'B')) " +
+            "@@ to_tsquery('simple', ?1) " +
+            "order by ts_rank(setweight(to_tsvector('simple', it.name), 'A') " +
+            "|| setweight(to_tsvector('simple', it.description), 'B'), to_tsquery('simple', ?1)) desc, it.id " +
+            "limit ?3 offset ?2", nativeQuery = true)
+    List<Item> findAllByFullTextSearch(String query, long offset, int limit);
+
+    @Query(value = "select it from Item as it " +
+            "where it.available = true " +
+            "and (UPPER(it.name) like UPPER(concat('%', ?1, '%')) " +
+            "or UPPER(it.description) like UPPER(concat('%', ?1, '%'))) " +
+            FREE)
+    Slice<Item> findAllFreeBySearch(String text, LocalDateTime freeFrom, LocalDateTime freeTo, PageRequest pageRequest);
+
+    @Query(value = "select it.* from items as it " +
+            "where it.is_available = true " +
+            "and (setweight(to_tsvector('simple', it.name), 'A') || setweight(to_tsvector('simple', it.description), 'B')) " +
+            "@@ to_tsquery('simple', ?1) " +
+            FREE_NATIVE +
+            "order by ts_rank(setweight(to_tsvector('simple', it.name), 'A') " +
+            "|| setweight(to_tsvector('simple', it.description), 'B'), to_tsquery('simple', ?1)) desc, it.id " +
+            "limit ?5 offset ?4", nativeQuery = true)
+    List<Item> findAllFreeByFullTextSearch(String query, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                           long offset, int limit);
 
+    @Query(value = "select it.id from Item as it " +
+            "where it.id in ?1 " +
+            FREE)
+    List<Long> findFreeIdsByIdIn(Collection<Long> itemIds, LocalDateTime freeFrom, LocalDateTime freeTo);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findByRequestIdIn(List<Long> itemRequestIds);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findByRequestId(Long id);
+
+    // Вещи, у которых последнее или следующее бронирование сделал пользователь: при его удалении
+    // ссылки на бронирования обнулит ON DELETE SET NULL
+    @Query(value = "select it.id from items as it " +
+            "where it.last_booking_id in (select b.id from bookings as b where b.booker_id = ?1) " +
+            "or it.next_booking_id in (select b.id from bookings as b where b.booker_id = ?1)", nativeQuery = true)
+    List<Long> findIdsByLastOrNextBookingBookerId(long bookerId);
+
+    // Только для плановых пересчётов и удаления бронирующего: после нативного update Hibernate всё равно
+    // сбрасывает регион items кэша второго уровня целиком вместе с кэшем запросов, указание таблицы лишь
+    // не даёт сбросить остальные регионы
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "items"))
+    @Query(value = REBUILD +
+            "where items.next_booking_id in (select b.id from bookings as b where b.start_date <= ?1)", nativeQuery = true)
+    int refreshWhereNextBookingStarted(LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "items"))
+    @Query(value = REBUILD +
+            "where items.id between ?2 and ?3 " +
+            INCONSISTENT, nativeQuery = true)
+    int rebuildWhereInconsistent(LocalDateTime now, long fromId, long toId);
+
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "items"))
+    @Query(value = REBUILD +
+            "where items.id in ?2 " +
+            INCONSISTENT, nativeQuery = true)
+    int rebuildWhereInconsistentByIdIn(LocalDateTime now, Collection<Long> itemIds);
+
+    @Query(value = "select max(it.id) from Item as it")
+    Long findMaxId();
 }
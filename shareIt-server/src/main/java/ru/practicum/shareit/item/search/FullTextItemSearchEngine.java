@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "full-text")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, PageRequestParams pageRequestParams) {
+        String query = toQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        PageRequest pageRequest = pageRequestParams.getPageRequest();
+        return itemRepository.findAllByFullTextSearch(query, pageRequest.getOffset(), pageRequest.getPageSize());
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                 PageRequestParams pageRequestParams) {
+        String query = toQuery(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        PageRequest pageRequest = pageRequestParams.getPageRequest();
+        return itemRepository.findAllFreeByFullTextSearch(query, freeFrom, freeTo, pageRequest.getOffset(),
+                pageRequest.getPageSize());
+    }
+
+    @Override
+    public void index(Item item) {
+        // GIN индекс items_search_vector_idx обновляется самой БД
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        // Строки удаляются из индекса items_search_vector_idx самой БД
+    }
+
+    // Каждое слово ищется по префиксу: "дрел" находит "дрель"
+    private String toQuery(String text) {
+        return ItemSearchTokenizer.tokenize(text).stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "in-memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Слово -> (ид вещи -> вес совпадения)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Map<String, Integer>> itemIdToTokens = new HashMap<>();
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            itemIdToTokens.clear();
+            items.forEach(this::addToIndex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс вещей построен, проиндексировано {} шт.", items.size());
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequestParams pageRequestParams) {
+        PageRequest pageRequest = pageRequestParams.getPageRequest();
+        List<Long> itemIds = findIds(text, pageRequest.getOffset(), pageRequest.getPageSize());
+        return ItemSearchResults.loadInOrder(itemRepository, itemIds);
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                 PageRequestParams pageRequestParams) {
+        PageRequest pageRequest = pageRequestParams.getPageRequest();
+        // Ранжирование всё равно строится по всем совпадениям, поэтому кандидаты считаются один раз
+        List<Long> candidateIds = findIds(text, 0, Integer.MAX_VALUE);
+        List<Long> itemIds = ItemSearchResults.findFreePage(itemRepository,
+                (offset, limit) -> candidateIds.subList((int) Math.min(offset, candidateIds.size()),
+                        (int) Math.min(offset + limit, candidateIds.size())),
+                freeFrom, freeTo, pageRequest.getOffset(), pageRequest.getPageSize());
+        return ItemSearchResults.loadInOrder(itemRepository, itemIds);
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            removeFromIndex(item.getId());
+            addToIndex(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(this::removeFromIndex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> findIds(String text, long offset, int limit) {
+        List<String> queryTokens = ItemSearchTokenizer.tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return rank(queryTokens).entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> rank(List<String> queryTokens) {
+        Map<Long, Integer> scores = null;
+        for (String queryToken : queryTokens) {
+            Map<Long, Integer> matched = new HashMap<>();
+            postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, true).values()
+                    .forEach(posting -> posting.forEach((itemId, weight) -> matched.merge(itemId, weight, Integer::sum)));
+            if (scores == null) {
+                scores = matched;
+            } else {
+                scores.keySet().retainAll(matched.keySet());
+                scores.replaceAll((itemId, score) -> score + matched.get(itemId));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private void addToIndex(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Map<String, Integer> tokens = new HashMap<>();
+        ItemSearchTokenizer.tokenize(item.getName()).forEach(token -> tokens.merge(token, NAME_WEIGHT, Integer::sum));
+        ItemSearchTokenizer.tokenize(item.getDescription())
+                .forEach(token -> tokens.merge(token, DESCRIPTION_WEIGHT, Integer::sum));
+        tokens.forEach((token, weight) -> postings.computeIfAbsent(token, key -> new HashMap<>()).put(item.getId(), weight));
+        itemIdToTokens.put(item.getId(), tokens);
+    }
+
+    private void removeFromIndex(Long itemId) {
+        Map<String, Integer> tokens = itemIdToTokens.remove(itemId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens.keySet()) {
+            Map<Long, Integer> posting = postings.get(token);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+}
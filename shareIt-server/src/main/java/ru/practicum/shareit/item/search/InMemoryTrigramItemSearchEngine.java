@@ -0,0 +1,188 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "in-memory-trigram")
+public class InMemoryTrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Триграмма -> отсортированные ид вещей, в названии или описании которых она встречается
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final NavigableMap<Long, String[]> itemIdToTexts = new TreeMap<>();
+
+    public InMemoryTrigramItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            itemIdToTexts.clear();
+            items.forEach(this::addToIndex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Триграммный индекс вещей построен, проиндексировано {} шт.", items.size());
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequestParams pageRequestParams) {
+        PageRequest pageRequest = pageRequestParams.getPageRequest();
+        List<Long> itemIds = findIds(text, pageRequest.getOffset(), pageRequest.getPageSize());
+        return ItemSearchResults.loadInOrder(itemRepository, itemIds);
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                 PageRequestParams pageRequestParams) {
+        PageRequest pageRequest = pageRequestParams.getPageRequest();
+        // Кандидаты добираются пачками: для первых страниц обычно хватает первой пачки
+        List<Long> itemIds = ItemSearchResults.findFreePage(itemRepository,
+                (offset, limit) -> findIds(text, offset, limit), freeFrom, freeTo,
+                pageRequest.getOffset(), pageRequest.getPageSize());
+        return ItemSearchResults.loadInOrder(itemRepository, itemIds);
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            removeFromIndex(item.getId());
+            addToIndex(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            itemIds.forEach(this::removeFromIndex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Long> findIds(String text, long offset, int limit) {
+        String pattern = text.toUpperCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            return find(pattern, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> find(String pattern, long offset, int limit) {
+        List<Long> itemIds = new ArrayList<>();
+        long skipped = 0;
+        Set<String> trigrams = ItemSearchTokenizer.trigrams(pattern);
+        if (trigrams.isEmpty()) {
+            // Для запросов короче трёх символов триграмм нет, проверяем все вещи по порядку
+            for (Map.Entry<Long, String[]> entry : itemIdToTexts.entrySet()) {
+                if (matches(entry.getValue(), pattern) && skipped++ >= offset) {
+                    itemIds.add(entry.getKey());
+                    if (itemIds.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return itemIds;
+        }
+        List<PostingList> postingLists = new ArrayList<>();
+        for (String trigram : trigrams) {
+            PostingList postingList = postings.get(trigram);
+            if (postingList == null) {
+                return itemIds;
+            }
+            postingLists.add(postingList);
+        }
+        postingLists.sort(Comparator.comparingInt(PostingList::size));
+        PostingList shortest = postingLists.get(0);
+        for (int i = 0; i < shortest.size() && itemIds.size() < limit; i++) {
+            long itemId = shortest.get(i);
+            if (containsInAll(postingLists, itemId)
+                    && matches(itemIdToTexts.get(itemId), pattern)
+                    && skipped++ >= offset) {
+                itemIds.add(itemId);
+            }
+        }
+        return itemIds;
+    }
+
+    private boolean containsInAll(List<PostingList> postingLists, long itemId) {
+        for (int i = 1; i < postingLists.size(); i++) {
+            if (!postingLists.get(i).contains(itemId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Та же проверка, что и UPPER(...) LIKE UPPER('%text%') в ItemRepository.findAllBySearch
+    private boolean matches(String[] texts, String pattern) {
+        return texts[0].contains(pattern) || texts[1].contains(pattern);
+    }
+
+    private void addToIndex(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        String[] texts = {
+                item.getName().toUpperCase(Locale.ROOT),
+                item.getDescription().toUpperCase(Locale.ROOT)
+        };
+        itemIdToTexts.put(item.getId(), texts);
+        for (String text : texts) {
+            ItemSearchTokenizer.trigrams(text)
+                    .forEach(trigram -> postings.computeIfAbsent(trigram, key -> new PostingList()).add(item.getId()));
+        }
+    }
+
+    private void removeFromIndex(Long itemId) {
+        String[] texts = itemIdToTexts.remove(itemId);
+        if (texts == null) {
+            return;
+        }
+        for (String text : texts) {
+            for (String trigram : ItemSearchTokenizer.trigrams(text)) {
+                PostingList postingList = postings.get(trigram);
+                if (postingList == null) {
+                    continue;
+                }
+                postingList.remove(itemId);
+                if (postingList.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+}
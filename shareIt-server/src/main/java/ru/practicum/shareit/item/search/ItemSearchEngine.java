@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, PageRequestParams pageRequestParams);
+
+    List<Item> searchFree(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                          PageRequestParams pageRequestParams);
+
+    void index(Item item);
+
+    void remove(Collection<Long> itemIds);
+}
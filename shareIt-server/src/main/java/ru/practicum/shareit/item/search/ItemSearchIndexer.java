@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+
+// Изменения поискового индекса применяются только после фиксации транзакции,
+// иначе откат оставляет в индексе вещи, которых нет в БД
+@Component
+@AllArgsConstructor
+public class ItemSearchIndexer {
+    private final ItemSearchEngine itemSearchEngine;
+
+    public void index(Item item) {
+        afterCommit(() -> itemSearchEngine.index(item));
+    }
+
+    public void index(List<Item> items) {
+        afterCommit(() -> items.forEach(itemSearchEngine::index));
+    }
+
+    public void remove(Collection<Long> itemIds) {
+        afterCommit(() -> itemSearchEngine.remove(itemIds));
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Страницы выдачи поисковых индексов в памяти: вещи грузятся по ид в порядке выдачи,
+// а при поиске свободных вещей занятость кандидатов проверяется в БД пачками
+@UtilityClass
+class ItemSearchResults {
+    private static final int BATCH_SIZE = 500;
+
+    // candidates отдаёт ид кандидатов в порядке выдачи по смещению и количеству
+    List<Long> findFreePage(ItemRepository itemRepository, BiFunction<Long, Integer, List<Long>> candidates,
+                            LocalDateTime freeFrom, LocalDateTime freeTo, long offset, int limit) {
+        List<Long> itemIds = new ArrayList<>();
+        long skipped = 0;
+        for (long from = 0; itemIds.size() < limit; from += BATCH_SIZE) {
+            List<Long> batch = candidates.apply(from, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            Set<Long> freeIds = new HashSet<>(itemRepository.findFreeIdsByIdIn(batch, freeFrom, freeTo));
+            for (Long itemId : batch) {
+                if (freeIds.contains(itemId) && skipped++ >= offset) {
+                    itemIds.add(itemId);
+                    if (itemIds.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return itemIds;
+    }
+
+    List<Item> loadInOrder(ItemRepository itemRepository, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> idToItem = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(idToItem::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
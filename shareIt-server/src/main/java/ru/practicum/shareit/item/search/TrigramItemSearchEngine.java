@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "trigram", matchIfMissing = true)
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, PageRequestParams pageRequestParams) {
+        // Запрос прежний, на Postgres его ускоряют GIN индексы pg_trgm на UPPER(name) и UPPER(description)
+        return itemRepository.findAllBySearch(text, pageRequestParams.getPageRequest()).getContent();
+    }
+
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                 PageRequestParams pageRequestParams) {
+        return itemRepository.findAllFreeBySearch(text, freeFrom, freeTo, pageRequestParams.getPageRequest())
+                .getContent();
+    }
+
+    @Override
+    public void index(Item item) {
+        // GIN индексы items_name_trgm_idx и items_description_trgm_idx обновляются самой БД
+    }
+
+    @Override
+    public void remove(Collection<Long> itemIds) {
+        // Строки удаляются из индексов items_name_trgm_idx и items_description_trgm_idx самой БД
+    }
+}
@@ -1,16 +1,20 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemGetResponseDto;
 import ru.practicum.shareit.params.PageRequestParams;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDto addItem(long userId, ItemDto itemDto);
 
+    BatchResultDto addItems(long userId, List<ItemDto> itemDtos);
+
     ItemDto updateItem(long userId, ItemDto itemDto);
 
     ItemGetResponseDto getItemById(long userId, long id);
@@ -19,5 +23,8 @@ public interface ItemService {
 
     List<ItemDto> getItemsBySearch(String text, PageRequestParams pageRequestParams);
 
+    List<ItemDto> getFreeItemsBySearch(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                       PageRequestParams pageRequestParams);
+
     CommentDto addComment(long userId, long itemId, CommentDto commentDto);
 }
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.batch.BatchImport;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.mapper.CommentMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -16,41 +19,51 @@ import ru.practicum.shareit.exception.NotOwnerOrBookerException;
 import ru.practicum.shareit.exception.NotValidException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemCommentView;
 import ru.practicum.shareit.item.dto.ItemGetResponseDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndexer;
+import ru.practicum.shareit.metrics.MetricsConfig;
 import ru.practicum.shareit.params.PageRequestParams;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int COMMENTS_PER_ITEM = 10;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchIndexer itemSearchIndexer;
 
     @Override
     @Transactional
     public ItemDto addItem(long userId, ItemDto itemDto) {
-        User user = isUserPresent(userId);
+        User user = userLookup.getUser(userId);
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(user);
         if (itemDto.getRequestId() != null) {
@@ -58,14 +71,51 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
         Item savedItem = itemRepository.save(item);
+        itemSearchIndexer.index(savedItem);
         log.info("Добавлена новая вещь с ID = {}", savedItem.getId());
         return ItemMapper.toItemDto(savedItem);
     }
 
+    @Override
+    @Transactional
+    public BatchResultDto addItems(long userId, List<ItemDto> itemDtos) {
+        User user = userLookup.getUser(userId);
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(itemDtos.stream()
+                        .filter(Objects::nonNull)
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        BatchImport<Item> batchImport = new BatchImport<>(itemDtos.size());
+        for (int i = 0; i < itemDtos.size(); i++) {
+            ItemDto itemDto = itemDtos.get(i);
+            if (batchImport.rejectIfEmpty(i, itemDto)) {
+                continue;
+            }
+            try {
+                isItemValid(itemDto);
+                Item item = ItemMapper.toItem(itemDto);
+                item.setOwner(user);
+                if (itemDto.getRequestId() != null) {
+                    item.setRequest(isItemRequestPresent(itemRequests, itemDto.getRequestId()));
+                }
+                batchImport.accept(i, item);
+            } catch (NotValidException | NotFoundException e) {
+                batchImport.reject(i, e.getMessage());
+            }
+        }
+        List<Item> savedItems = batchImport.save(itemRepository::saveAllAndFlush);
+        itemSearchIndexer.index(savedItems);
+        BatchResultDto result = batchImport.toResult(savedItems, Item::getId);
+        log.info("Пакетный импорт вещей пользователя с ID {}: добавлено {}, отклонено {}.", userId,
+                result.getCreated(), result.getRejected());
+        return result;
+    }
+
     @Override
     @Transactional
     public ItemDto updateItem(long userId, ItemDto itemDto) {
-        isUserPresent(userId);
+        userLookup.getUser(userId);
         Item oldItem = isItemPresent(itemDto.getId());
         isUserOwner(oldItem, userId);
         if (itemDto.getAvailable() != null) {
@@ -78,17 +128,23 @@ public class ItemServiceImpl implements ItemService {
             oldItem.setName(itemDto.getName());
         }
         Item updatedItem = itemRepository.save(oldItem);
+        itemSearchIndexer.index(updatedItem);
         log.info("Вещь с ID {} обновлена.", updatedItem.getId());
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
     public ItemGetResponseDto getItemById(long userId, long itemId) {
-        Item item = isItemPresent(itemId);
+        Item item = isItemWithBookingsPresent(itemId);
         ItemGetResponseDto itemGetResponseDto = ItemMapper.toItemGetResponseDto(item);
-        List<Booking> bookings = bookingRepository.findByItemId(itemGetResponseDto.getId());
         if (userId == item.getOwner().getId()) {
-            addBookingResponseDto(itemGetResponseDto, bookings);
+            LocalDateTime now = LocalDateTime.now();
+            if (isNextBookingStarted(item, now)) {
+                List<ItemBookingView> bookings = bookingRepository.findLastAndNextApprovedByItemId(itemId, now);
+                addLastAndNextBooking(itemGetResponseDto, bookings, now);
+            } else {
+                addLastAndNextBooking(itemGetResponseDto, item);
+            }
         }
         List<Comment> comments = commentRepository.findByItemId(itemId);
         itemGetResponseDto.setComments(CommentMapper.toCommentDtos(comments));
@@ -98,7 +154,7 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemGetResponseDto> getAllItemsByUserId(long userId, PageRequestParams pageRequestParams) {
-        isUserPresent(userId);
+        userLookup.getUser(userId);
         List<ItemGetResponseDto> itemGetResponseDtoList = addBookingAndCommentResponseDto(userId, pageRequestParams);
         log.info("Список вещей пользователя с ид {} с номера {} размером {} возвращён.",
                 userId, pageRequestParams.getFrom(), pageRequestParams.getSize());
@@ -107,19 +163,28 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public List<ItemDto> getItemsBySearch(String text, PageRequestParams pageRequestParams) {
-        PageRequest pageRequest = pageRequestParams.getPageRequest();
-        Page<Item> itemsPage = itemRepository.findAllBySearch(text, pageRequest);
-        List<Item> items = itemsPage.getContent();
+        List<Item> items = itemSearchEngine.search(text, pageRequestParams);
         List<ItemDto> itemsDto = ItemMapper.toItemDtos(items);
         log.info("Список свободных вещей по запросу \"{}\" с номера {} размером {} возвращён.",
                 text, pageRequestParams.getFrom(), pageRequestParams.getSize());
         return itemsDto;
     }
 
+    @Override
+    public List<ItemDto> getFreeItemsBySearch(String text, LocalDateTime freeFrom, LocalDateTime freeTo,
+                                              PageRequestParams pageRequestParams) {
+        isTimeWindowValid(freeFrom, freeTo);
+        List<Item> items = itemSearchEngine.searchFree(text, freeFrom, freeTo, pageRequestParams);
+        List<ItemDto> itemsDto = ItemMapper.toItemDtos(items);
+        log.info("Список вещей по запросу \"{}\", свободных с {} по {}, с номера {} размером {} возвращён.",
+                text, freeFrom, freeTo, pageRequestParams.getFrom(), pageRequestParams.getSize());
+        return itemsDto;
+    }
+
     @Override
     public CommentDto addComment(long userId, long itemId, CommentDto commentDto) {
         Item item = isItemPresent(itemId);
-        User user = isUserPresent(userId);
+        User user = userLookup.getUser(userId);
         List<Booking> bookings = bookingRepository.findByItemIdAndBookerId(itemId, userId).stream()
                 .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now())
                         && booking.getStatus().equals(BookingStatus.APPROVED))
@@ -138,28 +203,40 @@ public class ItemServiceImpl implements ItemService {
 
     private List<ItemGetResponseDto> addBookingAndCommentResponseDto(long userId, PageRequestParams pageRequestParams) {
         PageRequest pageRequest = pageRequestParams.getPageRequest();
-        Page<Item> itemsPage = itemRepository.findByOwnerId(userId, pageRequest);
-        List<Item> items = itemsPage.getContent();
+        Slice<Item> itemsSlice = itemRepository.findByOwnerId(userId, pageRequest);
+        List<Item> items = itemsSlice.getContent();
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
         List<Long> itemIds = items.stream()
                 .map(Item::getId)
                 .collect(Collectors.toList());
-        List<Booking> bookings = bookingRepository.findByItemIdIn(itemIds);
-        if (bookings.isEmpty()) {
-            return ItemMapper.toItemGetResponseDtos(items);
-        }
-        List<Comment> comments = commentRepository.findByItemIdIn(itemIds);
-        Map<Long, List<Booking>> itemIdToBookings = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), Collectors.toList()));
-        Map<Long, List<Comment>> itemIdToComments = comments.stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(), Collectors.toList()));
+        LocalDateTime now = LocalDateTime.now();
+        // Следующее бронирование уже началось, а планировщик ещё не пересчитал колонки вещи
+        List<Long> staleItemIds = items.stream()
+                .filter(item -> isNextBookingStarted(item, now))
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemBookingView>> itemIdToBookings = staleItemIds.isEmpty() ? Map.of() :
+                bookingRepository.findLastAndNextApprovedByItemIdIn(staleItemIds, now).stream()
+                        .collect(Collectors.groupingBy(ItemBookingView::getItemId, Collectors.toList()));
         List<ItemGetResponseDto> itemGetResponseDtoList = new ArrayList<>();
         for (Item item : items) {
             ItemGetResponseDto itemGetResponseDto = ItemMapper.toItemGetResponseDto(item);
-            addBookingResponseDto(itemGetResponseDto, itemIdToBookings.getOrDefault(item.getId(), new ArrayList<>()));
-            itemGetResponseDto.setComments(itemIdToComments.containsKey(item.getId()) ?
-                    CommentMapper.toCommentDtos(itemIdToComments.get(item.getId())) : new ArrayList<>());
+            if (staleItemIds.contains(item.getId())) {
+                addLastAndNextBooking(itemGetResponseDto, itemIdToBookings.getOrDefault(item.getId(), List.of()), now);
+            } else {
+                addLastAndNextBooking(itemGetResponseDto, item);
+            }
             itemGetResponseDtoList.add(itemGetResponseDto);
         }
+        // Комментарии загружаются для всей страницы: вещь без последнего бронирования тоже может их иметь
+        Map<Long, List<ItemCommentView>> itemIdToComments = commentRepository
+                .findLatestByItemIdIn(itemIds, COMMENTS_PER_ITEM).stream()
+                .collect(Collectors.groupingBy(ItemCommentView::getItemId, Collectors.toList()));
+        itemGetResponseDtoList.forEach(itemGetResponseDto -> itemGetResponseDto.setComments(
+                CommentMapper.toCommentDtosFromViews(
+                        itemIdToComments.getOrDefault(itemGetResponseDto.getId(), List.of()))));
         return itemGetResponseDtoList;
     }
 
@@ -171,19 +248,36 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private void addBookingResponseDto(ItemGetResponseDto itemGetResponseDto, List<Booking> bookings) {
-        Optional<Booking> nextBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now())
-                        && booking.getStatus().equals(BookingStatus.APPROVED))
-                .min(Comparator.comparing(Booking::getStart));
-        BookingResponseDto nextBookingResponseDto = nextBooking.map(BookingMapper::toBookingResponseDto).orElse(null);
-        itemGetResponseDto.setNextBooking(nextBookingResponseDto);
-        Optional<Booking> lastBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()) &&
-                        booking.getStatus().equals(BookingStatus.APPROVED))
-                .max(Comparator.comparing(Booking::getEnd));
-        BookingResponseDto lastBookingResponseDto = lastBooking.map(BookingMapper::toBookingResponseDto).orElse(null);
-        itemGetResponseDto.setLastBooking(lastBookingResponseDto);
+    private void addLastAndNextBooking(ItemGetResponseDto itemGetResponseDto, List<ItemBookingView> bookings,
+                                       LocalDateTime now) {
+        for (ItemBookingView booking : bookings) {
+            if (booking.getStartDate().isAfter(now)) {
+                itemGetResponseDto.setNextBooking(BookingMapper.toBookingResponseDto(booking));
+            } else {
+                itemGetResponseDto.setLastBooking(BookingMapper.toBookingResponseDto(booking));
+            }
+        }
+    }
+
+    private void addLastAndNextBooking(ItemGetResponseDto itemGetResponseDto, Item item) {
+        if (item.getLastBooking() != null) {
+            itemGetResponseDto.setLastBooking(BookingMapper.toBookingResponseDto(item.getLastBooking()));
+        }
+        if (item.getNextBooking() != null) {
+            itemGetResponseDto.setNextBooking(BookingMapper.toBookingResponseDto(item.getNextBooking()));
+        }
+    }
+
+    private void isTimeWindowValid(LocalDateTime freeFrom, LocalDateTime freeTo) {
+        if (freeFrom == null || freeTo == null || !freeFrom.isBefore(freeTo)) {
+            log.error("Период свободы вещи с {} по {} задан неверно.", freeFrom, freeTo);
+            throw new NotValidException(String.format("Период свободы вещи с %s по %s задан неверно.",
+                    freeFrom, freeTo));
+        }
+    }
+
+    private boolean isNextBookingStarted(Item item, LocalDateTime now) {
+        return item.getNextBooking() != null && !item.getNextBooking().getStart().isAfter(now);
     }
 
     private void isUserOwner(Item item, long userId) {
@@ -194,17 +288,17 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private User isUserPresent(long userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
-            log.error("Пользователь с ИД {} отсутствует в БД.", userId);
-            throw new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId));
+    private Item isItemPresent(long itemId) {
+        Optional<Item> optionalItem = itemRepository.findById(itemId);
+        if (optionalItem.isEmpty()) {
+            log.error("Вещь с ИД {} отсутствует в БД.", itemId);
+            throw new NotFoundException(String.format("Вещь с ИД %d отсутствует в БД.", itemId));
         }
-        return optionalUser.get();
+        return optionalItem.get();
     }
 
-    private Item isItemPresent(long itemId) {
-        Optional<Item> optionalItem = itemRepository.findById(itemId);
+    private Item isItemWithBookingsPresent(long itemId) {
+        Optional<Item> optionalItem = itemRepository.findWithLastAndNextBookingById(itemId);
         if (optionalItem.isEmpty()) {
             log.error("Вещь с ИД {} отсутствует в БД.", itemId);
             throw new NotFoundException(String.format("Вещь с ИД %d отсутствует в БД.", itemId));
@@ -220,4 +314,28 @@ public class ItemServiceImpl implements ItemService {
         }
         return optionalItemRequest.get();
     }
+
+    private ItemRequest isItemRequestPresent(Map<Long, ItemRequest> itemRequests, long requestId) {
+        ItemRequest itemRequest = itemRequests.get(requestId);
+        if (itemRequest == null) {
+            log.error("Запрос с ИД {} отсутствует в БД.", requestId);
+            throw new NotFoundException(String.format("Запрос с ИД %d отсутствует в БД.", requestId));
+        }
+        return itemRequest;
+    }
+
+    private void isItemValid(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            log.error("Название вещи не может быть пустым.");
+            throw new NotValidException("Название вещи не может быть пустым.");
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            log.error("Описание вещи не может быть пустым.");
+            throw new NotValidException("Описание вещи не может быть пустым.");
+        }
+        if (itemDto.getAvailable() == null) {
+            log.error("Доступность не может быть null.");
+            throw new NotValidException("Доступность не может быть null.");
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.logging;
+
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Случайное число запроса в MDC: по нему RequestLogSamplingFilter оставляет или отбрасывает
+// все INFO-записи запроса вместе, а не каждую строку отдельно
+@Component
+public class RequestLogSampleMdcFilter extends OncePerRequestFilter {
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        MDC.put(RequestLogSamplingFilter.REQUEST_SAMPLE_KEY,
+                String.valueOf(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestLogSamplingFilter.REQUEST_SAMPLE_KEY);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import lombok.Setter;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Выборка INFO-записей приложения по запросам: контроллер и сервис пишут строки на каждый запрос, и по числу
+// запроса из MDC они оставляются или отбрасываются вместе. Записи вне запроса выбираются по одной. Решение
+// принимается до создания события, поэтому отброшенная запись не стоит ни форматирования, ни аллокаций.
+// WARN и ERROR пишутся всегда
+@Setter
+public class RequestLogSamplingFilter extends TurboFilter {
+    static final String REQUEST_SAMPLE_KEY = "requestSample";
+
+    private String loggerPrefix = "ru.practicum.shareit";
+    // Пишется в среднем одна запись из sampleEvery
+    private int sampleEvery = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (sampleEvery <= 1 || level != Level.INFO || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        String requestSample = MDC.get(REQUEST_SAMPLE_KEY);
+        int sample = requestSample != null
+                ? Integer.parseInt(requestSample)
+                : ThreadLocalRandom.current().nextInt(sampleEvery);
+        return sample % sampleEvery == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
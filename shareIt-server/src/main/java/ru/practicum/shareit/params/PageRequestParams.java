@@ -13,7 +13,7 @@ public class PageRequestParams {
     private Sort sort;
     private PageRequest pageRequest;
 
-    public PageRequestParams(Integer from, Integer size, Direction direction, String sortBy) {
+    public PageRequestParams(Integer from, Integer size, Direction direction, String... sortBy) {
         this.from = from;
         this.size = size;
         this.page = from / size;
@@ -1,14 +1,23 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<ItemRequest> findByRequestorIdOrderByIdDesc(long userId);
 
-    Page<ItemRequest> findByRequestorIdNot(long userId, PageRequest pageRequest);
+    @Query("select r.id from ItemRequest as r where r.requestor.id = ?1")
+    List<Long> findIdsByRequestorId(long requestorId);
+
+    Slice<ItemRequest> findByRequestorIdNot(long userId, PageRequest pageRequest);
 }
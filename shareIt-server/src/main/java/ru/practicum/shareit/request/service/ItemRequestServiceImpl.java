@@ -1,22 +1,24 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.MetricsConfig;
 import ru.practicum.shareit.params.PageRequestParams;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import javax.transaction.Transactional;
 import java.util.List;
@@ -26,16 +28,17 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemRepository itemRepository;
 
     @Override
     @Transactional
     public ItemRequestDto addItemRequest(long userId, ItemRequestDto itemRequestDto) {
-        User user = isUserPresent(userId);
+        User user = userLookup.getUser(userId);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto);
         itemRequest.setRequestor(user);
         ItemRequest savedItemRequest = itemRequestRepository.save(itemRequest);
@@ -45,7 +48,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getAllItemRequestsByUserId(long userId) {
-        isUserPresent(userId);
+        userLookup.getUser(userId);
         List<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdOrderByIdDesc(userId);
         List<ItemRequestDto> itemRequestDtos = addItemDtos(itemRequests);
         log.info("Текущее количество запросов пользователя с ид {} составляет: {} шт. Список возвращён.",
@@ -55,10 +58,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getAllItemRequests(long userId, PageRequestParams pageRequestParams) {
-        isUserPresent(userId);
+        userLookup.getUser(userId);
         PageRequest pageRequest = pageRequestParams.getPageRequest();
-        Page<ItemRequest> itemRequestPage = itemRequestRepository.findByRequestorIdNot(userId, pageRequest);
-        List<ItemRequest> itemRequests = itemRequestPage.getContent();
+        Slice<ItemRequest> itemRequestSlice = itemRequestRepository.findByRequestorIdNot(userId, pageRequest);
+        List<ItemRequest> itemRequests = itemRequestSlice.getContent();
         List<ItemRequestDto> itemRequestDtos = addItemDtos(itemRequests);
         log.info("Список запросов с номера {} размером {} возвращён.", pageRequestParams.getFrom(), pageRequestParams.getSize());
         return itemRequestDtos;
@@ -66,7 +69,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getItemRequestById(long userId, long itemRequestId) {
-        isUserPresent(userId);
+        userLookup.getUser(userId);
         ItemRequest itemRequest = isItemRequestPresent(itemRequestId);
         List<Item> items = itemRepository.findByRequestId(itemRequest.getId());
         List<ItemDto> itemDtos = ItemMapper.toItemDtos(items);
@@ -85,15 +88,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return optionalItemRequest.get();
     }
 
-    private User isUserPresent(long userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
-            log.error("Пользователь с ИД {} отсутствует в БД.", userId);
-            throw new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId));
-        }
-        return optionalUser.get();
-    }
-
     private List<ItemRequestDto> addItemDtos(List<ItemRequest> itemRequests) {
         List<ItemRequestDto> itemRequestDtos = ItemRequestMapper.toItemRequestDtos(itemRequests);
         List<Long> itemRequestIds = itemRequests.stream()
@@ -9,6 +9,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -25,6 +26,11 @@ public class UserController {
         return userService.addUser(userDto);
     }
 
+    @PostMapping("/batch")
+    public BatchResultDto createUsers(@RequestBody List<UserDto> userDtos) {
+        return userService.addUsers(userDtos);
+    }
+
     @PatchMapping("/{id}")
     public UserDto updateUser(@RequestBody UserDto userDto,
                               @PathVariable long id) {
@@ -1,7 +1,14 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Query("select u.email from User u where u.email in ?1")
+    Set<String> findEmailsByEmailIn(Collection<String> emails);
 }
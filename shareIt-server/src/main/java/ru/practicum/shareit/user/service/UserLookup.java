@@ -0,0 +1,70 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Проверка существования пользователя с кэшем: ею начинается почти каждый запрос к сервису
+@Slf4j
+@Component
+public class UserLookup {
+    private final UserRepository userRepository;
+    private final Cache<Long, User> users;
+
+    public UserLookup(UserRepository userRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${shareit.user-cache.maximum-size}") long maximumSize,
+                      @Value("${shareit.user-cache.ttl}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    // Возвращается копия, чтобы изменения вызывающего кода не попадали в кэш
+    public User getUser(long userId) {
+        return copy(users.get(userId, this::load));
+    }
+
+    public void invalidate(long userId) {
+        users.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Повторно после фиксации: иначе параллельный запрос успеет закэшировать старые данные
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    // Исключение не кэшируется: отсутствующего пользователя могут создать следующим же запросом
+    private User load(long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            log.error("Пользователь с ИД {} отсутствует в БД.", userId);
+            throw new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId));
+        }
+        return copy(optionalUser.get());
+    }
+
+    private User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail());
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.batch.dto.BatchResultDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -8,6 +9,8 @@ public interface UserService {
 
     UserDto addUser(UserDto userDto);
 
+    BatchResultDto addUsers(List<UserDto> userDtos);
+
     UserDto updateUser(UserDto userDto);
 
     UserDto getUserById(long id);
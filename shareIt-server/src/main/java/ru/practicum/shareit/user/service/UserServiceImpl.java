@@ -1,23 +1,47 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.batch.BatchImport;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.cache.SecondLevelCacheInvalidator;
+import ru.practicum.shareit.exception.NotValidException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndexer;
+import ru.practicum.shareit.metrics.MetricsConfig;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("[^@\\s]+@[^@\\s]+");
+
     private final UserRepository userRepository;
+    private final UserLookup userLookup;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndexer itemSearchIndexer;
+    private final SecondLevelCacheInvalidator secondLevelCacheInvalidator;
 
     @Override
     @Transactional
@@ -29,10 +53,43 @@ public class UserServiceImpl implements UserService {
         return returnedUserDto;
     }
 
+    @Override
+    @Transactional
+    public BatchResultDto addUsers(List<UserDto> userDtos) {
+        // Занятые адреса проверяются одним запросом, дубликаты внутри пакета - по мере разбора строк
+        Set<String> takenEmails = new HashSet<>(userRepository.findEmailsByEmailIn(userDtos.stream()
+                .filter(Objects::nonNull)
+                .map(UserDto::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet())));
+        BatchImport<User> batchImport = new BatchImport<>(userDtos.size());
+        for (int i = 0; i < userDtos.size(); i++) {
+            UserDto userDto = userDtos.get(i);
+            if (batchImport.rejectIfEmpty(i, userDto)) {
+                continue;
+            }
+            try {
+                isUserValid(userDto, takenEmails);
+                takenEmails.add(userDto.getEmail());
+                User user = UserMapper.toUser(userDto);
+                user.setId(null);
+                batchImport.accept(i, user);
+            } catch (NotValidException e) {
+                batchImport.reject(i, e.getMessage());
+            }
+        }
+        List<User> savedUsers = batchImport.save(userRepository::saveAllAndFlush);
+        BatchResultDto result = batchImport.toResult(savedUsers, User::getId);
+        log.info("Пакетный импорт пользователей: добавлено {}, отклонено {}.", result.getCreated(), result.getRejected());
+        return result;
+    }
+
     @Override
     @Transactional
     public UserDto updateUser(UserDto userDto) {
-        User oldUser = isUserPresent(userDto.getId());
+        // Изменения накладываются на свежую запись из БД, а не на копию из кэша
+        userLookup.invalidate(userDto.getId());
+        User oldUser = userLookup.getUser(userDto.getId());
         String newEmail = userDto.getEmail();
         if (newEmail != null) {
             oldUser.setEmail(newEmail);
@@ -48,15 +105,31 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto getUserById(long id) {
-        User user = isUserPresent(id);
+        User user = userLookup.getUser(id);
         UserDto userDto = UserMapper.toUserDto(user);
         log.info("Пользователь с ID {} возвращён.", id);
         return userDto;
     }
 
     @Override
+    @Transactional
     public void deleteUser(long id) {
+        // Вещи, запросы и бронирования пользователя удаляет каскад в БД, мимо поискового индекса и кэша второго уровня
+        List<Long> itemIds = itemRepository.findIdsByOwnerIdOrRequestorId(id);
+        List<Long> itemRequestIds = itemRequestRepository.findIdsByRequestorId(id);
+        List<Long> rebookedItemIds = itemRepository.findIdsByLastOrNextBookingBookerId(id);
         userRepository.deleteById(id);
+        if (!rebookedItemIds.isEmpty()) {
+            // Обнулённые каскадом последнее и следующее бронирование пересчитываются сразу, а не ночным rebuild
+            userRepository.flush();
+            itemRepository.rebuildWhereInconsistentByIdIn(LocalDateTime.now(), rebookedItemIds);
+        }
+        itemSearchIndexer.remove(itemIds);
+        Set<Long> changedItemIds = new HashSet<>(itemIds);
+        changedItemIds.addAll(rebookedItemIds);
+        secondLevelCacheInvalidator.afterCascadeDelete(Map.of(Item.class, changedItemIds,
+                ItemRequest.class, itemRequestIds));
+        userLookup.invalidate(id);
         log.info("Пользователь с ID {} удалён.", id);
     }
 
@@ -67,12 +140,23 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDtos(users);
     }
 
-    private User isUserPresent(long userId) {
-        Optional<User> optionalUser = userRepository.findById(userId);
-        if (optionalUser.isEmpty()) {
-            log.error("Пользователь с ИД {} отсутствует в БД.", userId);
-            throw new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId));
+    private void isUserValid(UserDto userDto, Set<String> takenEmails) {
+        if (userDto.getName() == null || userDto.getName().isBlank()) {
+            log.error("Имя пользователя не может быть пустым.");
+            throw new NotValidException("Имя пользователя не может быть пустым.");
+        }
+        String email = userDto.getEmail();
+        if (email == null || email.isBlank()) {
+            log.error("Должен быть указан email.");
+            throw new NotValidException("Должен быть указан email.");
+        }
+        if (!EMAIL_PATTERN.matcher(email).matches()) {
+            log.error("Email {} задан неверно.", email);
+            throw new NotValidException(String.format("Email %s задан неверно.", email));
+        }
+        if (takenEmails.contains(email)) {
+            log.error("Пользователь с email {} уже существует.", email);
+            throw new NotValidException(String.format("Пользователь с email %s уже существует.", email));
         }
-        return optionalUser.get();
     }
 }
@@ -1,28 +1,28 @@
-drop table if exists users, requests, items, bookings, comments;
-
-CREATE TABLE IF NOT EXISTS users (
+CREATE TABLE users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   email VARCHAR(512) NOT NULL UNIQUE
 );
 
-CREATE TABLE IF NOT EXISTS requests (
+CREATE TABLE requests (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   description VARCHAR(1000) NOT NULL,
   requestor_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
   create_date TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
-CREATE TABLE IF NOT EXISTS items (
+CREATE TABLE items (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(1000) NOT NULL,
   is_available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
-  request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE
+  request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE,
+  last_booking_id BIGINT,
+  next_booking_id BIGINT
 );
 
-CREATE TABLE IF NOT EXISTS bookings (
+CREATE TABLE bookings (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -31,7 +31,13 @@ CREATE TABLE IF NOT EXISTS bookings (
   status VARCHAR(50) NOT NULL CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED', 'CANCELED'))
 );
 
-CREATE TABLE IF NOT EXISTS comments (
+ALTER TABLE items ADD CONSTRAINT items_last_booking_fk
+  FOREIGN KEY (last_booking_id) REFERENCES bookings(id) ON DELETE SET NULL;
+
+ALTER TABLE items ADD CONSTRAINT items_next_booking_fk
+  FOREIGN KEY (next_booking_id) REFERENCES bookings(id) ON DELETE SET NULL;
+
+CREATE TABLE comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   text VARCHAR(2000) NOT NULL,
   item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
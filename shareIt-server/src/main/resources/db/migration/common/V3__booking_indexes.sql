@@ -0,0 +1,13 @@
+-- Списки бронирований арендатора: все, прошедшие, будущие, текущие
+CREATE INDEX bookings_booker_start_idx ON bookings (booker_id, start_date DESC);
+
+-- Списки бронирований арендатора по статусу
+CREATE INDEX bookings_booker_status_start_idx ON bookings (booker_id, status, start_date DESC);
+
+-- Списки бронирований владельца и последнее/следующее бронирование вещи
+CREATE INDEX bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+-- Проверка, что автор комментария брал вещь в аренду
+CREATE INDEX bookings_item_booker_idx ON bookings (item_id, booker_id);
+
+CREATE INDEX items_owner_idx ON items (owner_id);
@@ -0,0 +1,2 @@
+-- Ожидающие подтверждения бронирования владельца составляют малую долю таблицы
+CREATE INDEX bookings_waiting_item_start_idx ON bookings (item_id, start_date DESC) WHERE status = 'WAITING';
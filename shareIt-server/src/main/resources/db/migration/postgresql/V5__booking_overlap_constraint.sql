@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Подтверждённые бронирования одной вещи не могут пересекаться по времени
+ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+  EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+  WHERE (status = 'APPROVED');
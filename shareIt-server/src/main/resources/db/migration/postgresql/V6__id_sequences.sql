@@ -0,0 +1,17 @@
+-- Идентификаторы выдаются блоками по 50 (pooled-оптимизатор Hibernate), чтобы вставки шли пакетами JDBC.
+-- Первый блок начинается сразу за уже занятыми идентификаторами. Последовательность - единственный
+-- источник ИД: identity снимается, вставки без ИД берут его из той же последовательности
+CREATE SEQUENCE users_seq INCREMENT BY 50 OWNED BY users.id;
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users) + 50, 1), false);
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+CREATE SEQUENCE items_seq INCREMENT BY 50 OWNED BY items.id;
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items) + 50, 1), false);
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+CREATE SEQUENCE bookings_seq INCREMENT BY 50 OWNED BY bookings.id;
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(id) FROM bookings) + 50, 1), false);
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
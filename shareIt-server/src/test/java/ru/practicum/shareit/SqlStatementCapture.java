@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Запоминает SQL, который Hibernate отправляет в БД. Подключается свойством
+// spring.jpa.properties.hibernate.session_factory.statement_inspector
+public class SqlStatementCapture implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> getStatements() {
+        return new ArrayList<>(STATEMENTS);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+}
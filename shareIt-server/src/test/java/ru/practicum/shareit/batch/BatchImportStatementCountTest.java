@@ -0,0 +1,135 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.SqlStatementCounter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchImportStatementCountTest {
+    private static final int ROWS = 200;
+    private static final int JDBC_BATCH_SIZE = 50;
+    // На каждые 50 строк - один пакет вставок и один вызов последовательности, плюс проверки перед вставкой
+    private static final long MAX_STATEMENTS = 2L * ROWS / JDBC_BATCH_SIZE + 3;
+
+    private long ownerId;
+    private SqlStatementCounter sqlStatementCounter;
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        sqlStatementCounter = new SqlStatementCounter(entityManagerFactory);
+        ownerId = userRepository.save(new User("owner", "owner@mail.ru")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Пакетный импорт пользователей уходит в БД пакетами JDBC, а не отдельной вставкой на строку")
+    void createUsers_whenBatchImported_thenStatementCountDoesNotGrowPerRow() throws Exception {
+        List<UserDto> userDtos = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            userDtos.add(new UserDto("user" + i, "user" + i + "@mail.ru"));
+        }
+        userDtos.add(new UserDto("duplicate", "owner@mail.ru"));
+        sqlStatementCounter.reset();
+
+        mvc.perform(post("/users/batch")
+                        .content(mapper.writeValueAsString(userDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(ROWS)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rows[" + ROWS + "].error",
+                        is("Пользователь с email owner@mail.ru уже существует.")));
+
+        long statements = sqlStatementCounter.getCount();
+        assertTrue(statements <= MAX_STATEMENTS, "Выполнено запросов: " + statements);
+        assertEquals(ROWS + 1, userRepository.count());
+    }
+
+    @Test
+    @DisplayName("Вставка без ИД в обход Hibernate берёт ИД из той же последовательности и не конфликтует с пакетами")
+    void insertUser_whenIdOmitted_thenIdFromSequence() {
+        jdbcTemplate.update("insert into users (name, email) values ('plain', 'plain@mail.ru')");
+        long plainId = jdbcTemplate.queryForObject("select id from users where email = 'plain@mail.ru'", Long.class);
+
+        List<User> savedUsers = new ArrayList<>();
+        for (int i = 0; i < JDBC_BATCH_SIZE; i++) {
+            savedUsers.add(userRepository.save(new User("user" + i, "user" + i + "@mail.ru")));
+        }
+
+        assertTrue(plainId > ownerId);
+        assertTrue(savedUsers.stream().noneMatch(user -> user.getId() == plainId));
+        assertEquals(JDBC_BATCH_SIZE + 2, userRepository.count());
+    }
+
+    @Test
+    @DisplayName("Пакетный импорт вещей уходит в БД пакетами JDBC, а не отдельной вставкой на строку")
+    void createItems_whenBatchImported_thenStatementCountDoesNotGrowPerRow() throws Exception {
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            itemDtos.add(new ItemDto("name" + i, "description" + i, true, null));
+        }
+        itemDtos.add(new ItemDto("name", "", true, null));
+        sqlStatementCounter.reset();
+
+        mvc.perform(post("/items/batch")
+                        .header("X-Sharer-User-Id", ownerId)
+                        .content(mapper.writeValueAsString(itemDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(ROWS)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rows[" + ROWS + "].error", is("Описание вещи не может быть пустым.")));
+
+        long statements = sqlStatementCounter.getCount();
+        assertTrue(statements <= MAX_STATEMENTS, "Выполнено запросов: " + statements);
+        assertEquals(ROWS, itemRepository.count());
+    }
+}
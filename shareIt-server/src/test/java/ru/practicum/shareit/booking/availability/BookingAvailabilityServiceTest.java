@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityServiceTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    @Mock
+    private BookingRepository bookingRepository;
+    private BookingAvailabilityService bookingAvailabilityService;
+
+    @BeforeEach
+    void setUp() {
+        bookingAvailabilityService = new BookingAvailabilityService(bookingRepository, 2, Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("Бронирования вещи загружаются из БД один раз, дальше проверки идут по памяти")
+    void isFree_whenCalledTwice_thenLoadedOnce() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), anyCollection(), any()))
+                .thenReturn(List.of(view(1L, 1L, 10, 20, BookingStatus.APPROVED),
+                        view(2L, 1L, 30, 40, BookingStatus.WAITING)));
+
+        assertFalse(bookingAvailabilityService.isFree(1L, BASE.plusHours(15), BASE.plusHours(25), false));
+        assertTrue(bookingAvailabilityService.isFree(1L, BASE.plusHours(20), BASE.plusHours(35), false));
+        assertFalse(bookingAvailabilityService.isFree(1L, BASE.plusHours(20), BASE.plusHours(35), true));
+
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Подтверждение и отклонение бронирования сразу меняют занятость загруженной вещи")
+    void onBookingSaved_whenItemLoaded_thenAvailabilityUpdated() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), anyCollection(), any()))
+                .thenReturn(List.of(view(1L, 1L, 10, 20, BookingStatus.WAITING),
+                        view(2L, 1L, 30, 40, BookingStatus.WAITING)));
+        assertTrue(bookingAvailabilityService.isFree(1L, BASE.plusHours(15), BASE.plusHours(35), false));
+
+        bookingAvailabilityService.onBookingSaved(booking(1L, 1L, 10, 20, BookingStatus.APPROVED));
+        bookingAvailabilityService.onBookingSaved(booking(2L, 1L, 30, 40, BookingStatus.REJECTED));
+
+        assertFalse(bookingAvailabilityService.isFree(1L, BASE.plusHours(15), BASE.plusHours(25), false));
+        assertTrue(bookingAvailabilityService.isFree(1L, BASE.plusHours(20), BASE.plusHours(50), true));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Изменение незагруженной вещи не обращается к БД")
+    void onBookingSaved_whenItemNotLoaded_thenNothingLoaded() {
+        bookingAvailabilityService.onBookingSaved(booking(1L, 1L, 10, 20, BookingStatus.APPROVED));
+
+        verify(bookingRepository, never()).findIntervalsByItemId(anyLong(), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Давно не использованная вещь вытесняется и при следующем обращении загружается заново")
+    void isFree_whenCacheFull_thenLeastRecentlyUsedEvicted() {
+        when(bookingRepository.findIntervalsByItemId(anyLong(), anyCollection(), any())).thenReturn(List.of());
+
+        bookingAvailabilityService.isFree(1L, BASE, BASE.plusHours(1), false);
+        bookingAvailabilityService.isFree(2L, BASE, BASE.plusHours(1), false);
+        bookingAvailabilityService.isFree(1L, BASE, BASE.plusHours(1), false);
+        bookingAvailabilityService.isFree(3L, BASE, BASE.plusHours(1), false);
+        bookingAvailabilityService.isFree(1L, BASE, BASE.plusHours(1), false);
+        bookingAvailabilityService.isFree(2L, BASE, BASE.plusHours(1), false);
+
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), anyCollection(), any());
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(2L), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Свободные вещи из списка находятся одним запросом для всех незагруженных")
+    void findFreeItemIds_whenItemsNotLoaded_thenLoadedInOneQuery() {
+        when(bookingRepository.findIntervalsByItemIdIn(eq(List.of(1L, 2L)), anyCollection(), any()))
+                .thenReturn(List.of(view(1L, 1L, 10, 20, BookingStatus.APPROVED),
+                        view(2L, 2L, 30, 40, BookingStatus.APPROVED)));
+
+        List<Long> freeItemIds = bookingAvailabilityService.findFreeItemIds(List.of(1L, 2L),
+                BASE.plusHours(15), BASE.plusHours(25), false);
+
+        assertEquals(List.of(2L), freeItemIds);
+        assertFalse(bookingAvailabilityService.isFree(1L, BASE.plusHours(15), BASE.plusHours(25), false));
+        verify(bookingRepository, never()).findIntervalsByItemId(anyLong(), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Занятость вещи старше ttl перечитывается из БД")
+    void isFree_whenTtlExpired_thenReloaded() {
+        BookingAvailabilityService expiringService =
+                new BookingAvailabilityService(bookingRepository, 2, Duration.ZERO);
+        when(bookingRepository.findIntervalsByItemId(eq(1L), anyCollection(), any()))
+                .thenReturn(List.of(view(1L, 1L, 10, 20, BookingStatus.APPROVED)))
+                .thenReturn(List.of());
+
+        assertFalse(expiringService.isFree(1L, BASE.plusHours(15), BASE.plusHours(25), false));
+        assertTrue(expiringService.isFree(1L, BASE.plusHours(15), BASE.plusHours(25), false));
+
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Сброшенная занятость вещи при следующем обращении загружается заново")
+    void invalidate_whenItemLoaded_thenReloaded() {
+        when(bookingRepository.findIntervalsByItemId(eq(1L), anyCollection(), any())).thenReturn(List.of());
+        bookingAvailabilityService.isFree(1L, BASE, BASE.plusHours(1), false);
+
+        bookingAvailabilityService.invalidate(1L);
+        bookingAvailabilityService.isFree(1L, BASE, BASE.plusHours(1), false);
+
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(1L), anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("Загружаются только незакончившиеся бронирования, окно в прошлом проверяется по БД без кэша")
+    void isFree_whenWindowStartsInPast_thenCheckedByDatabase() {
+        LocalDateTime pastStart = LocalDateTime.now().minusDays(2);
+        LocalDateTime pastEnd = pastStart.plusDays(1);
+        when(bookingRepository.findIntervalsByItemId(eq(1L), anyCollection(), any())).thenReturn(List.of());
+        when(bookingRepository.findIntervalsByItemId(1L, List.of(BookingStatus.APPROVED, BookingStatus.WAITING),
+                pastStart)).thenReturn(List.of(view(1L, 1L, pastStart, pastEnd, BookingStatus.APPROVED)));
+
+        assertTrue(bookingAvailabilityService.isFree(1L, BASE, BASE.plusHours(1), false));
+        assertFalse(bookingAvailabilityService.isFree(1L, pastStart, pastEnd, false));
+        assertFalse(bookingAvailabilityService.isFree(1L, pastStart, pastEnd, false));
+
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(1L), anyCollection(),
+                argThat(endAfter -> !endAfter.isBefore(pastEnd)));
+        verify(bookingRepository, times(2)).findIntervalsByItemId(eq(1L), anyCollection(), eq(pastStart));
+    }
+
+    private BookingIntervalView view(long id, long itemId, int startHour, int endHour, BookingStatus status) {
+        return view(id, itemId, BASE.plusHours(startHour), BASE.plusHours(endHour), status);
+    }
+
+    private BookingIntervalView view(long id, long itemId, LocalDateTime start, LocalDateTime end,
+                                     BookingStatus status) {
+        return projectionFactory.createProjection(BookingIntervalView.class, Map.of(
+                "id", id,
+                "itemId", itemId,
+                "start", start,
+                "end", end,
+                "status", status));
+    }
+
+    private Booking booking(long id, long itemId, int startHour, int endHour, BookingStatus status) {
+        Item item = new Item("name", "description", true);
+        item.setId(itemId);
+        return new Booking(id, BASE.plusHours(startHour), BASE.plusHours(endHour), item, null, status);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingIntervalTreeTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    @DisplayName("Интервалы считаются полуоткрытыми: смежные бронирования не пересекаются")
+    void overlaps_whenIntervalsAdjacent_thenReturnedFalse() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.add(1L, BASE.plusHours(1), BASE.plusHours(2));
+
+        assertFalse(tree.overlaps(BASE, BASE.plusHours(1)));
+        assertFalse(tree.overlaps(BASE.plusHours(2), BASE.plusHours(3)));
+        assertTrue(tree.overlaps(BASE.plusMinutes(90), BASE.plusHours(3)));
+        assertTrue(tree.overlaps(BASE, BASE.plusHours(5)));
+    }
+
+    @Test
+    @DisplayName("Удалённый интервал больше не даёт пересечений")
+    void remove_whenIntervalRemoved_thenReturnedNoOverlap() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.add(1L, BASE, BASE.plusHours(2));
+        tree.add(2L, BASE, BASE.plusHours(1));
+
+        tree.remove(1L, BASE);
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.overlaps(BASE.plusMinutes(90), BASE.plusHours(3)));
+        assertTrue(tree.overlaps(BASE.plusMinutes(30), BASE.plusHours(3)));
+    }
+
+    @Test
+    @DisplayName("Поиск пересечений совпадает с полным перебором при случайных вставках и удалениях")
+    void overlaps_whenRandomOperations_thenReturnedSameAsBruteForce() {
+        Random random = new Random(42);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (long bookingId = 1; bookingId <= 5_000; bookingId++) {
+            if (!intervals.isEmpty() && random.nextInt(3) == 0) {
+                long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                tree.remove(removed[0], BASE.plusHours(removed[1]));
+            }
+            long start = random.nextInt(10_000);
+            long[] interval = {bookingId, start, start + 1 + random.nextInt(48)};
+            intervals.add(interval);
+            tree.add(interval[0], BASE.plusHours(interval[1]), BASE.plusHours(interval[2]));
+
+            long queryStart = random.nextInt(10_000);
+            long queryEnd = queryStart + 1 + random.nextInt(24);
+            boolean expected = intervals.stream().anyMatch(i -> i[1] < queryEnd && i[2] > queryStart);
+            assertEquals(expected, tree.overlaps(BASE.plusHours(queryStart), BASE.plusHours(queryEnd)));
+        }
+        assertEquals(intervals.size(), tree.size());
+    }
+}
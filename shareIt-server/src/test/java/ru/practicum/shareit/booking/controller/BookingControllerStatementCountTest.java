@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.SqlStatementCounter;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingControllerStatementCountTest {
+    // Поиск пользователя и одна выборка страницы вместе с вещами и арендаторами, без запроса количества
+    private static final long STATEMENTS_PER_PAGE = 2;
+    // Повторный запрос берёт пользователя из кэша
+    private static final long STATEMENTS_PER_CACHED_USER_PAGE = 1;
+
+    private long ownerId;
+    private long bookerId;
+    private SqlStatementCounter sqlStatementCounter;
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        sqlStatementCounter = new SqlStatementCounter(entityManagerFactory);
+        User owner = userRepository.save(new User("owner", "owner@mail.ru"));
+        User booker = userRepository.save(new User("booker", "booker@mail.ru"));
+        User otherBooker = userRepository.save(new User("other", "other@mail.ru"));
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+        List<Item> items = new ArrayList<>();
+        for (int i = 1; i < 4; i++) {
+            Item item = new Item("name" + i, "description" + i, true);
+            item.setOwner(owner);
+            items.add(itemRepository.save(item));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Item item : items) {
+            for (User user : List.of(booker, otherBooker)) {
+                saveBooking(now.minusDays(3), now.minusDays(2), item, user, BookingStatus.APPROVED);
+                saveBooking(now.minusDays(1), now.plusDays(1), item, user, BookingStatus.APPROVED);
+                saveBooking(now.plusDays(2), now.plusDays(3), item, user, BookingStatus.WAITING);
+                saveBooking(now.plusDays(4), now.plusDays(5), item, user, BookingStatus.REJECTED);
+            }
+        }
+        // Сущности с ИД из последовательности попадают в кэш второго уровня уже при вставке
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    @DisplayName("Страница бронирований арендатора загружается без дополнительных запросов вещей и пользователей")
+    void getAllBookingByBookerId_whenPageLoaded_thenStatementCountDoesNotDependOnPageSize(BookingState state)
+            throws Exception {
+        assertStatementCount("/bookings", bookerId, state, 50, STATEMENTS_PER_PAGE);
+        assertStatementCount("/bookings", bookerId, state, 2, STATEMENTS_PER_CACHED_USER_PAGE);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    @DisplayName("Страница бронирований владельца загружается без дополнительных запросов вещей и пользователей")
+    void getAllBookingByOwnerId_whenPageLoaded_thenStatementCountDoesNotDependOnPageSize(BookingState state)
+            throws Exception {
+        assertStatementCount("/bookings/owner", ownerId, state, 50, STATEMENTS_PER_PAGE);
+        assertStatementCount("/bookings/owner", ownerId, state, 2, STATEMENTS_PER_CACHED_USER_PAGE);
+    }
+
+    private void assertStatementCount(String path, long userId, BookingState state, int size, long expected)
+            throws Exception {
+        sqlStatementCounter.reset();
+
+        mvc.perform(get(path)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("state", state.toString())
+                        .param("from", "0")
+                        .param("size", String.valueOf(size)))
+                .andExpect(status().isOk());
+
+        assertEquals(expected, sqlStatementCounter.getCount());
+    }
+
+    private void saveBooking(LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+}
@@ -10,7 +10,9 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingCursorMapper;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.params.PageRequestParams;
 
@@ -24,6 +26,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.booking.BookingStatus.WAITING;
@@ -126,4 +129,61 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].id", is(bookingDto2.getId()), Long.class))
                 .andExpect(jsonPath("$[1].status", is(bookingDto2.getStatus().toString())));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Получение полной страницы бронирований возвращает курсор следующей страницы")
+    void getAllBookingByBookerId_whenPageIsFull_thenReturnedNextCursor() throws Exception {
+        BookingDto bookingDto = new BookingDto(1L, 1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                null, null, WAITING);
+        when(bookingService.getAllBookingByBookerId(Mockito.anyLong(), Mockito.any(BookingState.class), Mockito.any(PageRequestParams.class)))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings")
+                        .param("state", "ALL")
+                        .param("from", "0")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursorMapper.toToken(bookingDto)));
+    }
+
+    @Test
+    @DisplayName("Получение страницы бронирований владельца после курсора")
+    void getAllBookingByOwnerId_whenAfterCursor_thenReturnedBookingsAfterCursor() throws Exception {
+        BookingDto bookingDto1 = new BookingDto(1L, 1L, LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4),
+                null, null, WAITING);
+        BookingDto bookingDto2 = new BookingDto(2L, 1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                null, null, WAITING);
+        BookingCursor after = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 3L);
+        when(bookingService.getAllBookingByOwnerIdAfter(1L, BookingState.WAITING, after, 10))
+                .thenReturn(List.of(bookingDto1, bookingDto2));
+
+        mvc.perform(get("/bookings/owner")
+                        .param("state", "WAITING")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("after", BookingCursorMapper.toToken(new BookingDto(3L, null, after.getStart(),
+                                null, null, null, null)))
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(bookingDto1.getId()), Long.class))
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @DisplayName("Ошибка 400 при некорректном курсоре")
+    void getAllBookingByBookerId_whenAfterIsInvalid_thenReturnedBadRequest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .param("state", "ALL")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("after", "not-a-cursor")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.SqlStatementCapture;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверяет планы запросов бронирований на PostgreSQL, H2 для этого не подходит:
+ * он сам создаёт индексы на внешние ключи. Проверяется SQL, который Hibernate строит из методов репозитория:
+ * он перехватывается и разбирается через PREPARE и EXPLAIN EXECUTE с общим планом, не зависящим от параметров.
+ * Запуск на БД из docker-compose:
+ * {@code mvn test -Dtest=BookingQueryPlanTest -Dspring.datasource.url=jdbc:postgresql://localhost:6541/shareit
+ * -Dspring.datasource.username=root -Dspring.datasource.password=root
+ * -Dspring.datasource.driverClassName=org.postgresql.Driver}
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.SqlStatementCapture")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "spring.datasource.url", matches = "jdbc:postgresql:.*")
+class BookingQueryPlanTest {
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        // На пустых таблицах планировщик выбирает полный просмотр, даже когда индекс есть
+        entityManager.getEntityManager().createNativeQuery("set local enable_seqscan = off").executeUpdate();
+        entityManager.getEntityManager().createNativeQuery("set local plan_cache_mode = force_generic_plan")
+                .executeUpdate();
+    }
+
+    static Stream<Arguments> repositoryCalls() {
+        return Stream.of(
+                call("findByBooker_Id", repository -> repository.findByBooker_Id(1, PAGE)),
+                call("findByBooker_IdAndEndIsBefore", repository ->
+                        repository.findByBooker_IdAndEndIsBefore(1, NOW, PAGE)),
+                call("findByBooker_IdAndStartIsAfter", repository ->
+                        repository.findByBooker_IdAndStartIsAfter(1, NOW, PAGE)),
+                call("findAllByBookerIdWithStateCurrent", repository ->
+                        repository.findAllByBookerIdWithStateCurrent(1, NOW, PAGE)),
+                call("findByBooker_IdAndStatusEquals", repository ->
+                        repository.findByBooker_IdAndStatusEquals(1, BookingStatus.WAITING, PAGE)),
+                call("findByBookerIdAfter", repository ->
+                        repository.findByBookerIdAfter(1, NOW, 1, PageRequest.ofSize(10))),
+                call("findByItemOwnerId", repository -> repository.findByItemOwnerId(1, PAGE)),
+                call("findByOwnerIdAndStatus", repository ->
+                        repository.findByOwnerIdAndStatus(1, BookingStatus.WAITING, PAGE)),
+                call("findByOwnerIdAfter", repository ->
+                        repository.findByOwnerIdAfter(1, NOW, 1, PageRequest.ofSize(10))),
+                call("findLastAndNextApprovedByItemId", repository ->
+                        repository.findLastAndNextApprovedByItemId(1, NOW)),
+                call("findLastAndNextApprovedByItemIdIn", repository ->
+                        repository.findLastAndNextApprovedByItemIdIn(List.of(1L, 2L, 3L), NOW)),
+                call("findByItemIdAndBookerId", repository -> repository.findByItemIdAndBookerId(1, 1)),
+                call("existsApprovedOverlap", repository ->
+                        repository.existsApprovedOverlap(1, NOW, NOW.plusDays(1), 0)),
+                call("findIntervalsByItemIdIn", repository -> repository.findIntervalsByItemIdIn(List.of(1L, 2L),
+                        List.of(BookingStatus.APPROVED, BookingStatus.WAITING), NOW)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    @DisplayName("Запросы бронирований из репозитория используют индексы, а не полный просмотр таблицы")
+    void explain_whenRepositoryQuery_thenNoSeqScan(String method, Consumer<BookingRepository> query) {
+        SqlStatementCapture.reset();
+        query.accept(bookingRepository);
+        List<String> statements = SqlStatementCapture.getStatements();
+
+        assertFalse(statements.isEmpty(), method);
+        for (String sql : statements) {
+            String plan = explainGenericPlan(sql);
+            assertFalse(plan.contains("Seq Scan"), method + ":\n" + sql + "\n" + plan);
+        }
+    }
+
+    private String explainGenericPlan(String sql) {
+        EntityManager em = entityManager.getEntityManager();
+        em.createNativeQuery("prepare plan_check as " + numberParameters(sql)).executeUpdate();
+        try {
+            String parameterTypes = (String) em.createNativeQuery("select array_to_string(parameter_types, ',') "
+                    + "from pg_prepared_statements where name = 'plan_check'").getSingleResult();
+            String arguments = parameterTypes.isEmpty() ? "" : Stream.of(parameterTypes.split(","))
+                    .map(BookingQueryPlanTest::argumentOf)
+                    .collect(Collectors.joining(", ", "(", ")"));
+            @SuppressWarnings("unchecked")
+            List<Object> rows = em.createNativeQuery("explain execute plan_check" + arguments).getResultList();
+            return rows.stream()
+                    .map(Object::toString)
+                    .collect(Collectors.joining("\n"));
+        } finally {
+            em.createNativeQuery("deallocate plan_check").executeUpdate();
+        }
+    }
+
+    // Параметры JDBC ? превращаются в $1, $2... для PREPARE
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    // При общем плане значения параметров на план не влияют, важен только тип
+    private static String argumentOf(String type) {
+        if (type.contains("int") || type.equals("numeric")) {
+            return "1";
+        }
+        if (type.startsWith("timestamp")) {
+            return "localtimestamp";
+        }
+        if (type.equals("character varying") || type.equals("text")) {
+            return "'WAITING'";
+        }
+        if (type.equals("boolean")) {
+            return "true";
+        }
+        throw new IllegalStateException("Нет значения для параметра типа " + type);
+    }
+
+    private static Arguments call(String method, Consumer<BookingRepository> query) {
+        return Arguments.of(method, query);
+    }
+}
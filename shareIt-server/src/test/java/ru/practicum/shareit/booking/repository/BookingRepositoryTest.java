@@ -8,6 +8,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -15,8 +17,10 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -742,6 +746,170 @@ class BookingRepositoryTest {
         assertTrue(bookings.isEmpty());
     }
 
+    @Test
+    @DisplayName("Получение последнего и следующего одобренных бронирований вещи")
+    void findLastAndNextApprovedByItemId_whenSeveralBookings_thenReturnedLastAndNext() {
+        User owner = userRepository.save(users.get(0));
+        User booker = userRepository.save(users.get(1));
+        Item item = itemRepository.save(items.get(0));
+        Item otherItem = items.get(1);
+        otherItem.setOwner(owner);
+        itemRepository.save(otherItem);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(approvedBookingBuilder(booker, item, now.minusDays(10), now.minusDays(9)));
+        Booking lastBooking = bookingRepository.save(
+                approvedBookingBuilder(booker, item, now.minusDays(5), now.minusDays(4)));
+        Booking nextBooking = bookingRepository.save(
+                approvedBookingBuilder(booker, item, now.plusDays(1), now.plusDays(2)));
+        bookingRepository.save(approvedBookingBuilder(booker, item, now.plusDays(5), now.plusDays(6)));
+        Booking waitingBooking = bookingBuilder(booker, item);
+        waitingBooking.setStart(now.plusHours(1));
+        waitingBooking.setEnd(now.plusHours(2));
+        bookingRepository.save(waitingBooking);
+        bookingRepository.save(approvedBookingBuilder(booker, otherItem, now.minusDays(1), now.minusHours(1)));
+
+        List<ItemBookingView> bookings = bookingRepository.findLastAndNextApprovedByItemId(item.getId(), now);
+
+        assertEquals(2, bookings.size());
+        ItemBookingView last = bookings.stream().filter(b -> b.getStartDate().isBefore(now)).findFirst().orElseThrow();
+        ItemBookingView next = bookings.stream().filter(b -> b.getStartDate().isAfter(now)).findFirst().orElseThrow();
+        assertEquals(lastBooking.getId(), last.getId());
+        assertEquals(booker.getId(), last.getBookerId());
+        assertEquals(item.getId(), last.getItemId());
+        assertEquals(BookingStatus.APPROVED, last.getStatus());
+        assertEquals(nextBooking.getId(), next.getId());
+        assertEquals(nextBooking.getEnd(), next.getEndDate());
+    }
+
+    @Test
+    @DisplayName("Получение пустого списка последнего и следующего бронирований, когда нет одобренных бронирований")
+    void findLastAndNextApprovedByItemId_whenNoApprovedBookings_thenReturnedEmptyList() {
+        User booker = userRepository.save(users.get(1));
+        userRepository.save(users.get(0));
+        Item item = itemRepository.save(items.get(0));
+        Booking booking = bookingBuilder(booker, item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        bookingRepository.save(booking);
+
+        List<ItemBookingView> bookings = bookingRepository.findLastAndNextApprovedByItemId(item.getId(),
+                LocalDateTime.now());
+
+        assertTrue(bookings.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Получение не более двух бронирований на вещь для списка вещей")
+    void findLastAndNextApprovedByItemIdIn_whenSeveralItems_thenReturnedLastAndNextPerItem() {
+        User owner = userRepository.save(users.get(0));
+        User booker = userRepository.save(users.get(1));
+        Item item1 = itemRepository.save(items.get(0));
+        Item item2 = items.get(1);
+        item2.setOwner(owner);
+        itemRepository.save(item2);
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(approvedBookingBuilder(booker, item1, now.minusDays(10), now.minusDays(9)));
+        Booking lastBooking1 = bookingRepository.save(
+                approvedBookingBuilder(booker, item1, now.minusDays(5), now.minusDays(4)));
+        Booking nextBooking1 = bookingRepository.save(
+                approvedBookingBuilder(booker, item1, now.plusDays(1), now.plusDays(2)));
+        bookingRepository.save(approvedBookingBuilder(booker, item1, now.plusDays(5), now.plusDays(6)));
+        Booking nextBooking2 = bookingRepository.save(
+                approvedBookingBuilder(booker, item2, now.plusDays(3), now.plusDays(4)));
+        bookingRepository.save(approvedBookingBuilder(booker, item2, now.plusDays(7), now.plusDays(8)));
+
+        List<ItemBookingView> bookings = bookingRepository.findLastAndNextApprovedByItemIdIn(
+                List.of(item1.getId(), item2.getId()), now);
+
+        List<Long> bookingIds = bookings.stream().map(ItemBookingView::getId).sorted().collect(Collectors.toList());
+        assertEquals(List.of(lastBooking1.getId(), nextBooking1.getId(), nextBooking2.getId()), bookingIds);
+    }
+
+    @Test
+    @DisplayName("Получение интервалов незакончившихся подтверждённых и ожидающих бронирований для списка вещей")
+    void findIntervalsByItemIdIn_whenSeveralStatuses_thenReturnedOnlyTrackedStatuses() {
+        User owner = userRepository.save(users.get(0));
+        User booker = userRepository.save(users.get(1));
+        Item item1 = itemRepository.save(items.get(0));
+        Item item2 = items.get(1);
+        item2.setOwner(owner);
+        itemRepository.save(item2);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking approvedBooking = bookingRepository.save(
+                approvedBookingBuilder(booker, item1, now.plusDays(1), now.plusDays(2)));
+        Booking waitingBooking = approvedBookingBuilder(booker, item2, now.plusDays(3), now.plusDays(4));
+        waitingBooking.setStatus(BookingStatus.WAITING);
+        bookingRepository.save(waitingBooking);
+        Booking rejectedBooking = approvedBookingBuilder(booker, item1, now.plusDays(5), now.plusDays(6));
+        rejectedBooking.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(rejectedBooking);
+        bookingRepository.save(approvedBookingBuilder(booker, item1, now.minusDays(3), now.minusDays(2)));
+
+        List<BookingIntervalView> intervals = bookingRepository.findIntervalsByItemIdIn(
+                List.of(item1.getId(), item2.getId()), List.of(BookingStatus.APPROVED, BookingStatus.WAITING), now);
+
+        assertEquals(2, intervals.size());
+        BookingIntervalView approved = intervals.stream()
+                .filter(b -> b.getId().equals(approvedBooking.getId())).findFirst().orElseThrow();
+        assertEquals(item1.getId(), approved.getItemId());
+        assertEquals(approvedBooking.getStart(), approved.getStart());
+        assertEquals(approvedBooking.getEnd(), approved.getEnd());
+        assertEquals(BookingStatus.APPROVED, approved.getStatus());
+        assertTrue(intervals.stream().anyMatch(b -> b.getId().equals(waitingBooking.getId())
+                && b.getStatus() == BookingStatus.WAITING));
+    }
+
+    @Test
+    @DisplayName("Получение следующей страницы бронирований пользователя после курсора, когда даты начала совпадают")
+    void findByBookerIdAfter_whenSameStart_thenReturnedBookingsAfterCursor() {
+        User user = userRepository.save(users.get(0));
+        Item item = itemRepository.save(items.get(0));
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        Booking booking1 = bookingRepository.save(approvedBookingBuilder(user, item, start, start.plusDays(1)));
+        Booking booking2 = bookingRepository.save(approvedBookingBuilder(user, item, start, start.plusDays(2)));
+        Booking booking3 = bookingRepository.save(approvedBookingBuilder(user, item, start.minusDays(1), start));
+
+        List<Booking> bookings = bookingRepository.findByBookerIdAfter(user.getId(), booking2.getStart(),
+                booking2.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(booking1.getId(), booking3.getId()),
+                bookings.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Получение следующей страницы бронирований владельца в статусе WAITING после курсора")
+    void findByOwnerIdAndStatusAfter_whenSeveralBookings_thenReturnedPageAfterCursor() {
+        User owner = userRepository.save(users.get(0));
+        User booker = userRepository.save(users.get(1));
+        Item item = itemRepository.save(items.get(0));
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Booking booking = bookingBuilder(booker, item);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i + 1));
+            bookings.add(bookingRepository.save(booking));
+        }
+        Booking rejected = approvedBookingBuilder(booker, item, start, start.plusDays(1));
+        rejected.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(rejected);
+        Booking cursor = bookings.get(3);
+
+        List<Booking> page = bookingRepository.findByOwnerIdAndStatusAfter(owner.getId(), cursor.getStart(),
+                cursor.getId(), BookingStatus.WAITING, PageRequest.of(0, 2));
+
+        assertEquals(List.of(bookings.get(2).getId(), bookings.get(1).getId()),
+                page.stream().map(Booking::getId).collect(Collectors.toList()));
+    }
+
+    private Booking approvedBookingBuilder(User user, Item item, LocalDateTime start, LocalDateTime end) {
+        Booking booking = bookingBuilder(user, item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+
     private Booking bookingBuilder(User user, Item item) {
         Booking booking = new Booking();
         booking.setItem(item);
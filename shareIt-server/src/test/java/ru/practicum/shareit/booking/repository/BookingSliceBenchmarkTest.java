@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+/**
+ * Сравнение страницы бронирований с запросом количества (как было с Page) и без него (Slice) под нагрузкой.
+ * Запуск: mvn test -pl shareIt-server -Dtest=BookingSliceBenchmarkTest -Dbenchmark=true
+ * Параметры: -Dbenchmark.bookings (по умолчанию 500 000), -Dbenchmark.threads (по умолчанию 8),
+ * -Dbenchmark.requests — запросов на поток (по умолчанию 2 000).
+ */
+@Slf4j
+@DataJpaTest(showSql = false, properties = {
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+        "logging.level.org.springframework.transaction=OFF",
+        "logging.level.org.springframework.transaction.interceptor=OFF",
+        "logging.level.org.springframework.orm.jpa=OFF"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BookingSliceBenchmarkTest {
+    private static final int BOOKERS = 1_000;
+    private static final int ITEMS = 5_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    @DisplayName("Страница бронирований арендатора: Page с запросом количества против Slice")
+    void findByBookerId_pageVersusSlice() throws Exception {
+        int bookingsCount = Integer.getInteger("benchmark.bookings", 500_000);
+        int threads = Integer.getInteger("benchmark.threads", 8);
+        int requests = Integer.getInteger("benchmark.requests", 2_000);
+        seed(bookingsCount);
+        log.info("Бронирований: {}, потоков: {}, запросов на поток: {}", bookingsCount, threads, requests);
+        // Прогрев
+        run(1, requests, bookerId -> page(bookerId));
+        run(1, requests, bookerId -> slice(bookerId));
+
+        run(threads, requests, bookerId -> page(bookerId), "PAGE ");
+        run(threads, requests, bookerId -> slice(bookerId), "SLICE");
+    }
+
+    private void page(long bookerId) {
+        slice(bookerId);
+        // Тот же запрос количества, который Spring Data выполнял для каждой полной страницы Page
+        jdbcTemplate.queryForObject("select count(*) from bookings where booker_id = ?", Long.class, bookerId);
+    }
+
+    private void slice(long bookerId) {
+        bookingRepository.findByBooker_Id(bookerId,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "start", "id"))).getContent();
+    }
+
+    private void run(int threads, int requests, LongConsumer request, String name) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            tasks.add(() -> {
+                Random random = new Random(seed);
+                long[] latencies = new long[requests];
+                for (int i = 0; i < requests; i++) {
+                    long start = System.nanoTime();
+                    request.accept(random.nextInt(BOOKERS) + 1);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                return latencies;
+            });
+        }
+        long start = System.nanoTime();
+        List<Future<long[]>> futures = executorService.invokeAll(tasks);
+        long elapsed = System.nanoTime() - start;
+        executorService.shutdown();
+        long[] latencies = new long[threads * requests];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(futures.get(t).get(), 0, latencies, t * requests, requests);
+        }
+        Arrays.sort(latencies);
+        if (name != null) {
+            log.info("{}: {} запросов/с, p50 = {} мкс, p99 = {} мкс", name,
+                    latencies.length * 1_000_000_000L / elapsed,
+                    latencies[latencies.length / 2] / 1_000,
+                    latencies[latencies.length * 99 / 100] / 1_000);
+        }
+    }
+
+    private void run(int threads, int requests, LongConsumer request) throws Exception {
+        run(threads, requests, request, null);
+    }
+
+    private void seed(int bookingsCount) {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= BOOKERS; id++) {
+            users.add(new Object[]{id, "name" + id, "name" + id + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "name" + id, "description" + id, id % BOOKERS + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id) "
+                + "values (?, ?, ?, true, ?)", items);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= bookingsCount; id++) {
+            LocalDateTime start = now.plusHours(random.nextInt(100_000) - 50_000);
+            batch.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                    random.nextInt(ITEMS) + 1, random.nextInt(BOOKERS) + 1});
+            if (batch.size() == BATCH_SIZE || id == bookingsCount) {
+                jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) "
+                        + "values (?, ?, ?, ?, ?, 'APPROVED')", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ItemAlreadyBookedException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql=OFF",
+        "logging.level.ru.practicum.shareit=WARN",
+        "spring.jpa.show-sql=false"
+})
+class BookingServiceConcurrencyTest {
+    private static final int BOOKERS_COUNT = 200;
+    private static final int ITEMS_COUNT = 4;
+    private static final int THREADS_COUNT = 16;
+
+    private long ownerId;
+    private final List<Long> bookerIds = new ArrayList<>();
+    private final List<Long> itemIds = new ArrayList<>();
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User("owner", "owner@mail.ru"));
+        ownerId = owner.getId();
+        for (int i = 0; i < BOOKERS_COUNT; i++) {
+            bookerIds.add(userRepository.save(new User("booker" + i, "booker" + i + "@mail.ru")).getId());
+        }
+        for (int i = 0; i < ITEMS_COUNT; i++) {
+            Item item = new Item("name" + i, "description" + i, true);
+            item.setOwner(owner);
+            itemIds.add(itemRepository.save(item).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Параллельные подтверждения пересекающихся бронирований не дают двойного бронирования вещи")
+    void approveBooking_whenConcurrentOverlappingBookings_thenNoApprovedOverlaps() throws Exception {
+        // Окна по 3 часа со сдвигом на час внутри одних суток, поэтому почти каждая пара заявок пересекается
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        Random random = new Random(42);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (long bookerId : bookerIds) {
+            long itemId = itemIds.get(random.nextInt(ITEMS_COUNT));
+            LocalDateTime start = base.plusHours(random.nextInt(20));
+            BookingDto bookingDto = new BookingDto(null, itemId, start, start.plusHours(3), null, null, null);
+            tasks.add(() -> {
+                try {
+                    BookingDto saved = bookingService.addBooking(bookerId, bookingDto);
+                    bookingService.approveBooking(ownerId, saved.getId(), true);
+                    return true;
+                } catch (ItemAlreadyBookedException e) {
+                    return false;
+                }
+            });
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        AtomicInteger approvedCount = new AtomicInteger();
+        long startTime = System.nanoTime();
+        try {
+            for (Future<Boolean> future : executor.invokeAll(tasks)) {
+                if (future.get()) {
+                    approvedCount.incrementAndGet();
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        log.warn("Заявок: {}, подтверждено: {}, потоков: {}, за {} мс ({} заявок/с)", BOOKERS_COUNT,
+                approvedCount.get(), THREADS_COUNT, elapsedMillis, BOOKERS_COUNT * 1000L / Math.max(elapsedMillis, 1));
+
+        Map<Long, List<Booking>> approvedByItem = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(approvedCount.get(), approvedByItem.values().stream().mapToInt(List::size).sum());
+        for (List<Booking> approved : approvedByItem.values()) {
+            approved.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < approved.size(); i++) {
+                assertTrue(!approved.get(i).getStart().isBefore(approved.get(i - 1).getEnd()),
+                        String.format("Пересекаются бронирования %d и %d", approved.get(i - 1).getId(),
+                                approved.get(i).getId()));
+            }
+        }
+    }
+}
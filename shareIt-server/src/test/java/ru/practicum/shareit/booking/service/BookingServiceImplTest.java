@@ -7,12 +7,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowResultDto;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityService;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -27,17 +32,19 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.params.PageRequestParams;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -49,9 +56,15 @@ class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserLookup userLookup;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private LastNextBookingTracker lastNextBookingTracker;
+    @Mock
+    private ItemBookingLocks itemBookingLocks;
+    @Mock
+    private BookingAvailabilityService bookingAvailabilityService;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -70,7 +83,7 @@ class BookingServiceImplTest {
         long user2Id = 2L;
         User user2 = users.get(1);
         user2.setId(user2Id);
-        when(userRepository.findById(user2Id)).thenReturn(Optional.of(user2));
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
         long itemId = 1L;
         Item item = items.get(0);
         item.setId(itemId);
@@ -81,19 +94,23 @@ class BookingServiceImplTest {
         booking.setItem(item);
         booking.setBooker(user2);
         booking.setStatus(BookingStatus.WAITING);
+        when(bookingAvailabilityService.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd(), false))
+                .thenReturn(true);
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingDto returnedBookingDto = bookingService.addBooking(user2Id, bookingDto);
 
         assertEquals(UserMapper.toUserDto(user2), returnedBookingDto.getBooker());
         assertEquals(ItemMapper.toItemDto(item), returnedBookingDto.getItem());
+        verify(bookingAvailabilityService).onBookingSaved(booking);
     }
 
     @Test
     @DisplayName("Ошибка NotFoundException при добавлении бронирования, когда пользователь отсутствует в БД")
     void addBooking_whenUserNotPresent_thenThrowNotFoundException() {
         long user2Id = 1L;
-        when(userRepository.findById(user2Id)).thenReturn(Optional.empty());
+        when(userLookup.getUser(user2Id))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", user2Id)));
         long itemId = 1L;
         BookingDto bookingDto = new BookingDto(null, itemId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
                 null, null, null);
@@ -116,7 +133,7 @@ class BookingServiceImplTest {
         long user2Id = 2L;
         User user2 = users.get(1);
         user2.setId(user2Id);
-        when(userRepository.findById(user2Id)).thenReturn(Optional.of(user2));
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
         long itemId = 1L;
         when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
         BookingDto bookingDto = new BookingDto(null, itemId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
@@ -136,7 +153,7 @@ class BookingServiceImplTest {
         long user2Id = 2L;
         User user2 = users.get(0);
         user2.setId(user2Id);
-        when(userRepository.findById(user2Id)).thenReturn(Optional.of(user2));
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
         long itemId = 1L;
         Item item = items.get(0);
         item.setId(itemId);
@@ -161,7 +178,7 @@ class BookingServiceImplTest {
         long user2Id = 2L;
         User user2 = users.get(1);
         user2.setId(user2Id);
-        when(userRepository.findById(user2Id)).thenReturn(Optional.of(user2));
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
         long itemId = 1L;
         Item item = items.get(0);
         item.setId(itemId);
@@ -178,13 +195,68 @@ class BookingServiceImplTest {
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Ошибка ItemAlreadyBookedException при добавлении бронирования, когда даты уже заняты")
+    void addBooking_whenOverlapsApprovedBooking_thenThrowItemAlreadyBookedException() {
+        User user1 = users.get(0);
+        user1.setId(1L);
+        long user2Id = 2L;
+        User user2 = users.get(1);
+        user2.setId(user2Id);
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
+        long itemId = 1L;
+        Item item = items.get(0);
+        item.setId(itemId);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        BookingDto bookingDto = new BookingDto(null, itemId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                null, null, null);
+        when(bookingAvailabilityService.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd(), false))
+                .thenReturn(false);
+        when(bookingRepository.existsApprovedOverlap(itemId, bookingDto.getStart(), bookingDto.getEnd(), 0))
+                .thenReturn(true);
+
+        assertThrows(ItemAlreadyBookedException.class, () -> bookingService.addBooking(user2Id, bookingDto));
+
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Бронирование сохраняется, когда занятость в памяти устарела, а по БД вещь свободна")
+    void addBooking_whenAvailabilityStale_thenBookingSavedAndAvailabilityInvalidated() {
+        long user2Id = 2L;
+        User user2 = users.get(1);
+        user2.setId(user2Id);
+        users.get(0).setId(1L);
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
+        long itemId = 1L;
+        Item item = items.get(0);
+        item.setId(itemId);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        BookingDto bookingDto = new BookingDto(null, itemId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                null, null, null);
+        Booking booking = BookingMapper.toBooking(bookingDto);
+        booking.setItem(item);
+        booking.setBooker(user2);
+        booking.setStatus(BookingStatus.WAITING);
+        when(bookingAvailabilityService.isFree(itemId, bookingDto.getStart(), bookingDto.getEnd(), false))
+                .thenReturn(false);
+        when(bookingRepository.existsApprovedOverlap(itemId, bookingDto.getStart(), bookingDto.getEnd(), 0))
+                .thenReturn(false);
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        bookingService.addBooking(user2Id, bookingDto);
+
+        verify(bookingAvailabilityService).invalidate(itemId);
+        verify(bookingRepository).save(any());
+    }
+
     @Test
     @DisplayName("Успешное подтверждение бронирования, когда пользователь владелец.")
     void approveBooking_whenStatusIsApproved_thenReturnedBookingDto() {
         long user1Id = 1L;
         User user1 = users.get(0);
         user1.setId(user1Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
         long itemId = 1L;
         Item item = items.get(0);
         item.setId(itemId);
@@ -201,6 +273,55 @@ class BookingServiceImplTest {
         assertEquals(UserMapper.toUserDto(user2), returnedBookingDto.getBooker());
         assertEquals(ItemMapper.toItemDto(item), returnedBookingDto.getItem());
         assertEquals(BookingStatus.APPROVED, returnedBookingDto.getStatus());
+        verify(itemBookingLocks).lockUntilTransactionEnd(itemId);
+        verify(bookingRepository).saveAndFlush(booking);
+        verify(bookingAvailabilityService).onBookingSaved(booking);
+        verify(lastNextBookingTracker).onBookingApproved(booking);
+    }
+
+    @Test
+    @DisplayName("Ошибка ItemAlreadyBookedException при подтверждении, когда даты пересекаются с подтверждённым бронированием.")
+    void approveBooking_whenOverlapsApprovedBooking_thenThrowItemAlreadyBookedException() {
+        long user1Id = 1L;
+        User user1 = users.get(0);
+        user1.setId(user1Id);
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
+        long itemId = 1L;
+        Item item = items.get(0);
+        item.setId(itemId);
+        long bookingId = 1L;
+        Booking booking = new Booking(bookingId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item, users.get(1), BookingStatus.WAITING);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsApprovedOverlap(itemId, booking.getStart(), booking.getEnd(), bookingId))
+                .thenReturn(true);
+
+        assertThrows(ItemAlreadyBookedException.class, () -> bookingService.approveBooking(user1Id, bookingId, true));
+
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(lastNextBookingTracker, never()).onBookingApproved(any());
+    }
+
+    @Test
+    @DisplayName("Ошибка ItemAlreadyBookedException при подтверждении, когда пересечение отсекло ограничение БД.")
+    void approveBooking_whenOverlapConstraintViolated_thenThrowItemAlreadyBookedException() {
+        long user1Id = 1L;
+        User user1 = users.get(0);
+        user1.setId(user1Id);
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
+        long itemId = 1L;
+        Item item = items.get(0);
+        item.setId(itemId);
+        long bookingId = 1L;
+        Booking booking = new Booking(bookingId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item, users.get(1), BookingStatus.WAITING);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("overlap"));
+
+        assertThrows(ItemAlreadyBookedException.class, () -> bookingService.approveBooking(user1Id, bookingId, true));
+
+        verify(lastNextBookingTracker, never()).onBookingApproved(any());
     }
 
     @Test
@@ -209,7 +330,7 @@ class BookingServiceImplTest {
         long user1Id = 1L;
         User user1 = users.get(0);
         user1.setId(user1Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
         long itemId = 1L;
         Item item = items.get(0);
         item.setId(itemId);
@@ -234,7 +355,7 @@ class BookingServiceImplTest {
         long user1Id = 1L;
         User user1 = users.get(0);
         user1.setId(user1Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
         long bookingId = 1L;
 
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
@@ -244,7 +365,7 @@ class BookingServiceImplTest {
                 () -> bookingService.approveBooking(user1Id, bookingId, true));
 
         assertEquals("Бронирование с ИД 1 отсутствует в БД.", exception.getMessage());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -256,7 +377,7 @@ class BookingServiceImplTest {
         long user2Id = 2L;
         User user2 = users.get(1);
         user2.setId(user2Id);
-        when(userRepository.findById(user2Id)).thenReturn(Optional.of(user2));
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
         long itemId = 1L;
         Item item = items.get(0);
         item.setId(itemId);
@@ -270,7 +391,7 @@ class BookingServiceImplTest {
                 () -> bookingService.approveBooking(user2Id, bookingId, true));
 
         assertEquals("Пользователь с ИД 2 не является владельцем вещи с ИД 1.", exception.getMessage());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -282,7 +403,7 @@ class BookingServiceImplTest {
         long user2Id = 2L;
         User user2 = users.get(1);
         user2.setId(user2Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
         long itemId = 1L;
         Item item = items.get(0);
         item.setId(itemId);
@@ -296,7 +417,7 @@ class BookingServiceImplTest {
                 () -> bookingService.approveBooking(user1Id, bookingId, true));
 
         assertEquals("Нельзя менять статус после одобрения.", exception.getMessage());
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -315,7 +436,7 @@ class BookingServiceImplTest {
         long user1Id = 1L;
         User user1 = users.get(0);
         user1.setId(user1Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
 
         BookingDto returnedBookingDto = bookingService.getBookingById(user1Id, bookingId);
 
@@ -344,7 +465,7 @@ class BookingServiceImplTest {
         long user1Id = 3L;
         User user1 = users.get(2);
         user1.setId(user1Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
 
         NotOwnerOrBookerException exception = assertThrows(
                 NotOwnerOrBookerException.class,
@@ -359,7 +480,7 @@ class BookingServiceImplTest {
         long userId = 1L;
         User booker = users.get(2);
         booker.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(userId)).thenReturn(booker);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -368,9 +489,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByBooker_IdAndEndIsBefore(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByBookerId(userId, BookingState.PAST,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -386,7 +507,7 @@ class BookingServiceImplTest {
         long userId = 1L;
         User booker = users.get(2);
         booker.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(userId)).thenReturn(booker);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -395,9 +516,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByBooker_IdAndStartIsAfter(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByBookerId(userId, BookingState.FUTURE,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -413,7 +534,7 @@ class BookingServiceImplTest {
         long userId = 1L;
         User booker = users.get(2);
         booker.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(userId)).thenReturn(booker);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -422,9 +543,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findAllByBookerIdWithStateCurrent(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByBookerId(userId, BookingState.CURRENT,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -440,7 +561,7 @@ class BookingServiceImplTest {
         long userId = 1L;
         User booker = users.get(2);
         booker.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(userId)).thenReturn(booker);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -449,9 +570,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByBooker_IdAndStatusEquals(anyLong(), any(BookingStatus.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByBookerId(userId, BookingState.WAITING,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -467,7 +588,7 @@ class BookingServiceImplTest {
         long userId = 1L;
         User booker = users.get(2);
         booker.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(userId)).thenReturn(booker);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -476,9 +597,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.REJECTED);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.REJECTED);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByBooker_IdAndStatusEquals(anyLong(), any(BookingStatus.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByBookerId(userId, BookingState.REJECTED,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -494,7 +615,7 @@ class BookingServiceImplTest {
         long userId = 1L;
         User booker = users.get(2);
         booker.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(userLookup.getUser(userId)).thenReturn(booker);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -503,9 +624,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByBooker_Id(anyLong(), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByBookerId(userId, BookingState.ALL,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -521,7 +642,7 @@ class BookingServiceImplTest {
         long ownerId = 1L;
         User owner = users.get(0);
         owner.setId(ownerId);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(ownerId)).thenReturn(owner);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -533,9 +654,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByOwnerIdWithStatePast(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByOwnerId(ownerId, BookingState.PAST,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -551,7 +672,7 @@ class BookingServiceImplTest {
         long ownerId = 1L;
         User owner = users.get(0);
         owner.setId(ownerId);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(ownerId)).thenReturn(owner);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -563,9 +684,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByOwnerIdWithStateFuture(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByOwnerId(ownerId, BookingState.FUTURE,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -581,7 +702,7 @@ class BookingServiceImplTest {
         long ownerId = 1L;
         User owner = users.get(0);
         owner.setId(ownerId);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(ownerId)).thenReturn(owner);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -593,9 +714,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByByOwnerIdWithStateCurrent(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByOwnerId(ownerId, BookingState.CURRENT,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -611,7 +732,7 @@ class BookingServiceImplTest {
         long ownerId = 1L;
         User owner = users.get(0);
         owner.setId(ownerId);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(ownerId)).thenReturn(owner);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -623,9 +744,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByOwnerIdAndStatus(anyLong(), any(BookingStatus.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByOwnerId(ownerId, BookingState.WAITING,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -641,7 +762,7 @@ class BookingServiceImplTest {
         long ownerId = 1L;
         User owner = users.get(0);
         owner.setId(ownerId);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(ownerId)).thenReturn(owner);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -653,9 +774,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.REJECTED);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.REJECTED);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByOwnerIdAndStatus(anyLong(), any(BookingStatus.class), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByOwnerId(ownerId, BookingState.REJECTED,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -671,7 +792,7 @@ class BookingServiceImplTest {
         long ownerId = 1L;
         User owner = users.get(0);
         owner.setId(ownerId);
-        when(userRepository.findById(ownerId)).thenReturn(Optional.of(owner));
+        when(userLookup.getUser(ownerId)).thenReturn(owner);
         Item item1 = items.get(0);
         item1.setId(1L);
         Item item2 = items.get(1);
@@ -683,9 +804,9 @@ class BookingServiceImplTest {
                 item1, booker, BookingStatus.WAITING);
         Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(2), LocalDateTime.now().plusDays(3),
                 item2, booker, BookingStatus.WAITING);
-        Page<Booking> bookingsPage = new PageImpl<>(List.of(booking1, booking2));
+        Slice<Booking> bookingsSlice = new SliceImpl<>(List.of(booking1, booking2));
         when(bookingRepository.findByItemOwnerId(anyLong(), any(PageRequest.class)))
-                .thenReturn(bookingsPage);
+                .thenReturn(bookingsSlice);
 
         List<BookingDto> bookingDtos = bookingService.getAllBookingByOwnerId(ownerId, BookingState.ALL,
                 new PageRequestParams(0, 20, Sort.Direction.DESC, "start"));
@@ -703,6 +824,92 @@ class BookingServiceImplTest {
         return booking;
     }
 
+    @Test
+    @DisplayName("Получение страницы бронирований по ид заказчика после курсора, когда состояние PAST.")
+    void getAllBookingByBookerIdAfter_whenStateIsPast_thenReturnedBookingDtoList() {
+        long userId = 1L;
+        User booker = users.get(2);
+        booker.setId(userId);
+        when(userLookup.getUser(userId)).thenReturn(booker);
+        Item item = items.get(0);
+        item.setId(1L);
+        Booking booking = new Booking(1L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2),
+                item, booker, BookingStatus.APPROVED);
+        BookingCursor after = new BookingCursor(LocalDateTime.now().minusDays(1), 2L);
+        when(bookingRepository.findByBookerIdWithStatePastAfter(eq(userId), eq(after.getStart()), eq(after.getId()),
+                any(LocalDateTime.class), eq(PageRequest.of(0, 20))))
+                .thenReturn(List.of(booking));
+
+        List<BookingDto> bookingDtos = bookingService.getAllBookingByBookerIdAfter(userId, BookingState.PAST, after, 20);
+
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), bookingDtos);
+    }
+
+    @Test
+    @DisplayName("Получение страницы бронирований по ид владельца после курсора, когда состояние WAITING.")
+    void getAllBookingByOwnerIdAfter_whenStateIsWaiting_thenReturnedBookingDtoList() {
+        long userId = 1L;
+        User owner = users.get(0);
+        owner.setId(userId);
+        when(userLookup.getUser(userId)).thenReturn(owner);
+        Item item = items.get(0);
+        item.setId(1L);
+        Booking booking = new Booking(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item, users.get(1), BookingStatus.WAITING);
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(3), 2L);
+        when(bookingRepository.findByOwnerIdAndStatusAfter(userId, after.getStart(), after.getId(),
+                BookingStatus.WAITING, PageRequest.of(0, 20)))
+                .thenReturn(List.of(booking));
+
+        List<BookingDto> bookingDtos = bookingService.getAllBookingByOwnerIdAfter(userId, BookingState.WAITING, after, 20);
+
+        assertEquals(List.of(BookingMapper.toBookingDto(booking)), bookingDtos);
+    }
+
+    @Test
+    @DisplayName("Пакетный импорт бронирований: валидные строки сохраняются, невалидные попадают в отчёт")
+    void addBookings_whenSomeRowsNotValid_thenValidRowsSavedAndErrorsReported() {
+        User user1 = users.get(0);
+        user1.setId(1L);
+        long user2Id = 2L;
+        User user2 = users.get(1);
+        user2.setId(user2Id);
+        when(userLookup.getUser(user2Id)).thenReturn(user2);
+        Item item1 = items.get(0);
+        item1.setId(1L);
+        Item item2 = items.get(1);
+        item2.setId(2L);
+        when(itemRepository.findAllById(Set.of(1L, 2L, 99L))).thenReturn(List.of(item1, item2));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(null, 1L, start, start.plusDays(1), null, null, null),
+                new BookingDto(null, 1L, start.plusDays(1), start, null, null, null),
+                new BookingDto(null, 99L, start, start.plusDays(1), null, null, null),
+                new BookingDto(null, 2L, start, start.plusDays(1), null, null, null),
+                new BookingDto(null, 1L, start.plusDays(5), start.plusDays(6), null, null, null));
+        when(bookingAvailabilityService.isFree(1L, start, start.plusDays(1), false)).thenReturn(true);
+        when(bookingAvailabilityService.isFree(1L, start.plusDays(5), start.plusDays(6), false)).thenReturn(false);
+        when(bookingRepository.existsApprovedOverlap(1L, start.plusDays(5), start.plusDays(6), 0)).thenReturn(true);
+        when(bookingRepository.saveAllAndFlush(any())).thenAnswer(invocation -> {
+            List<Booking> savedBookings = invocation.getArgument(0);
+            savedBookings.get(0).setId(3L);
+            return savedBookings;
+        });
+
+        BatchResultDto result = bookingService.addBookings(user2Id, bookingDtos);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(4, result.getRejected());
+        assertEquals(BatchRowResultDto.created(0, 3), result.getRows().get(0));
+        assertEquals(BatchRowResultDto.rejected(1, "Даты бронирования заданы неверно."), result.getRows().get(1));
+        assertEquals(BatchRowResultDto.rejected(2, "Вещь с ИД 99 отсутствует в БД."), result.getRows().get(2));
+        assertEquals(BatchRowResultDto.rejected(3, "Пользователь с ИД 2 является владельцем вещи с ИД 2."),
+                result.getRows().get(3));
+        assertEquals(BatchRowResultDto.rejected(4, "Вещь с ИД 1 уже забронирована на эти даты."),
+                result.getRows().get(4));
+        verify(bookingAvailabilityService).onBookingSaved(any(Booking.class));
+    }
+
     private List<User> usersBuilder() {
         List<User> users = new ArrayList<>();
         for (int i = 1; i < 11; i++) {
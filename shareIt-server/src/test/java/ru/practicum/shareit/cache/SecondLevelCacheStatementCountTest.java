@@ -0,0 +1,232 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.SqlStatementCounter;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecondLevelCacheStatementCountTest {
+    private long ownerId;
+    private long requestorId;
+    private long itemId;
+    private long otherItemId;
+    private long itemRequestId;
+    private SqlStatementCounter sqlStatementCounter;
+    @MockBean
+    private CacheInvalidationHook cacheInvalidationHook;
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private SecondLevelCacheInvalidator secondLevelCacheInvalidator;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeEach
+    void setUp() {
+        sqlStatementCounter = new SqlStatementCounter(entityManagerFactory);
+        User owner = userRepository.save(new User("owner", "owner@mail.ru"));
+        User requestor = userRepository.save(new User("requestor", "requestor@mail.ru"));
+        ownerId = owner.getId();
+        requestorId = requestor.getId();
+        ItemRequest itemRequest = itemRequestRepository.save(
+                new ItemRequest(null, "description", requestor, LocalDateTime.now()));
+        itemRequestId = itemRequest.getId();
+        for (int i = 1; i < 4; i++) {
+            Item item = new Item("name" + i, "description" + i, true);
+            item.setOwner(owner);
+            item.setRequest(itemRequest);
+            otherItemId = itemId;
+            itemId = itemRepository.save(item).getId();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"GET /requests/{id}", "GET /requests", "PATCH /items/{id}"})
+    @DisplayName("Повторный запрос читает вещи, запросы и пользователей из кэша второго уровня")
+    void request_whenSecondLevelCacheWarm_thenFewerStatements(String endpoint) throws Exception {
+        // Первый вызов заполняет кэш пользователей UserLookup, чтобы считать только выигрыш кэша второго уровня
+        countStatements(endpoint);
+        entityManagerFactory.getCache().evictAll();
+
+        long cold = countStatements(endpoint);
+        long warm = countStatements(endpoint);
+
+        log.info("{}: запросов к БД без кэша второго уровня {}, с кэшем {}", endpoint, cold, warm);
+        assertTrue(warm < cold);
+    }
+
+    @Test
+    @DisplayName("Изменение кэшируемой сущности передаётся подключённому CacheInvalidationHook")
+    void updateUser_whenCommitted_thenHookNotified() throws Exception {
+        clearInvocations(cacheInvalidationHook);
+
+        mvc.perform(patch("/users/{id}", ownerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"new name\"}"))
+                .andExpect(status().isOk());
+
+        verify(cacheInvalidationHook).entityChanged(User.class, ownerId);
+    }
+
+    @Test
+    @DisplayName("Нативный update вещей сбрасывает только регион вещей")
+    void refreshWhereNextBookingStarted_whenExecuted_thenOnlyItemsEvicted() {
+        Cache cache = entityManagerFactory.getCache();
+        userRepository.findById(ownerId);
+        itemRepository.findById(itemId);
+        assertTrue(cache.contains(User.class, ownerId));
+        assertTrue(cache.contains(Item.class, itemId));
+
+        itemRepository.refreshWhereNextBookingStarted(LocalDateTime.now());
+
+        assertTrue(cache.contains(User.class, ownerId));
+        assertFalse(cache.contains(Item.class, itemId));
+    }
+
+    @Test
+    @DisplayName("Подтверждение бронирования не сбрасывает из кэша другие вещи")
+    void approveBooking_whenOtherItemCached_thenOtherItemReadFromCache() throws Exception {
+        Cache cache = entityManagerFactory.getCache();
+        User booker = userRepository.save(new User("booker", "booker@mail.ru"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(new Booking(null, start, start.plusDays(1),
+                itemRepository.findById(itemId).orElseThrow(), booker, BookingStatus.WAITING));
+        itemRepository.findById(otherItemId);
+        assertTrue(cache.contains(Item.class, otherItemId));
+        clearInvocations(cacheInvalidationHook);
+
+        mvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                        .header("X-Sharer-User-Id", ownerId)
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+        sqlStatementCounter.reset();
+        itemRepository.findById(otherItemId);
+
+        log.info("Чтение другой вещи после подтверждения бронирования: запросов к БД {}",
+                sqlStatementCounter.getCount());
+        assertTrue(cache.contains(Item.class, otherItemId));
+        assertEquals(0, sqlStatementCounter.getCount());
+        verify(cacheInvalidationHook).entityChanged(Item.class, itemId);
+    }
+
+    @Test
+    @DisplayName("Сущность удаляется из кэша по сообщению от другого экземпляра")
+    void evict_whenEntityCached_thenRemoved() {
+        Cache cache = entityManagerFactory.getCache();
+        itemRepository.findById(itemId);
+        assertTrue(cache.contains(Item.class, itemId));
+
+        secondLevelCacheInvalidator.evict(Item.class, itemId);
+
+        assertFalse(cache.contains(Item.class, itemId));
+    }
+
+    @Test
+    @DisplayName("После удаления владельца его вещь, удалённая каскадом в БД, не находится через кэш второго уровня, "
+            + "а чужие вещи остаются в кэше")
+    void deleteUser_whenItemCached_thenBookingItemNotFound() throws Exception {
+        Cache cache = entityManagerFactory.getCache();
+        User otherOwner = userRepository.save(new User("other owner", "other@mail.ru"));
+        Item unrelatedItem = new Item("unrelated", "unrelated", true);
+        unrelatedItem.setOwner(otherOwner);
+        long unrelatedItemId = itemRepository.save(unrelatedItem).getId();
+        itemRepository.findById(itemId);
+        itemRepository.findById(unrelatedItemId);
+        itemRequestRepository.findById(itemRequestId);
+        assertTrue(cache.contains(Item.class, itemId));
+        assertTrue(cache.contains(Item.class, unrelatedItemId));
+
+        mvc.perform(delete("/users/{id}", ownerId))
+                .andExpect(status().isOk());
+        mvc.perform(delete("/users/{id}", requestorId))
+                .andExpect(status().isOk());
+
+        assertFalse(cache.contains(Item.class, itemId));
+        assertFalse(cache.contains(ItemRequest.class, itemRequestId));
+        assertTrue(cache.contains(Item.class, unrelatedItemId));
+        long bookerId = userRepository.save(new User("booker", "booker@mail.ru")).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.format("{\"itemId\": %d, \"start\": \"%s\", \"end\": \"%s\"}",
+                                itemId, start, start.plusDays(1))))
+                .andExpect(status().isNotFound());
+    }
+
+    private long countStatements(String endpoint) throws Exception {
+        sqlStatementCounter.reset();
+        switch (endpoint) {
+            case "GET /requests/{id}":
+                mvc.perform(get("/requests/{id}", itemRequestId)
+                                .header("X-Sharer-User-Id", requestorId))
+                        .andExpect(status().isOk());
+                break;
+            case "GET /requests":
+                mvc.perform(get("/requests")
+                                .header("X-Sharer-User-Id", requestorId))
+                        .andExpect(status().isOk());
+                break;
+            default:
+                mvc.perform(patch("/items/{id}", itemId)
+                                .header("X-Sharer-User-Id", ownerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"description\": \"new description\"}"))
+                        .andExpect(status().isOk());
+        }
+        return sqlStatementCounter.getCount();
+    }
+}
@@ -16,10 +16,13 @@ import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.params.PageRequestParams;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -144,6 +147,31 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[1].description", is(itemDtos.get(1).getDescription())));
     }
 
+    @Test
+    @DisplayName("Получение списка свободных на период вещей по поисковому запросу")
+    void getItemsBySearch_whenFreeWindowPresent_thenReturnedFreeItemDtoList() throws Exception {
+        List<ItemDto> itemDtos = List.of(new ItemDto("name1", "description1", true, null));
+        LocalDateTime freeFrom = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime freeTo = LocalDateTime.of(2030, 1, 6, 10, 0);
+        when(itemService.getFreeItemsBySearch(Mockito.eq("name"), Mockito.eq(freeFrom), Mockito.eq(freeTo),
+                Mockito.any(PageRequestParams.class)))
+                .thenReturn(itemDtos);
+
+        mvc.perform(get("/items/search")
+                        .param("text", "name")
+                        .param("from", "0")
+                        .param("size", "20")
+                        .param("freeFrom", "2030-01-04T10:00:00")
+                        .param("freeTo", "2030-01-06T10:00:00")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is(itemDtos.get(0).getName())));
+        verify(itemService, never()).getItemsBySearch(Mockito.anyString(), Mockito.any(PageRequestParams.class));
+    }
+
     @Test
     @DisplayName("Успешное добавление отзыва к вещи")
     void createComment_whenCommentDtoIsValid_thenReturnedCommentDto() throws Exception {
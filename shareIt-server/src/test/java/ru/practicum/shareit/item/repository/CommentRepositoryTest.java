@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.dto.ItemCommentView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class CommentRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    @DisplayName("Получение последних комментариев к вещам с именами авторов, не больше заданного количества на вещь")
+    void findLatestByItemIdIn_whenManyComments_thenReturnedLatestPerItem() {
+        User owner = userRepository.save(new User("owner", "owner@mail.ru"));
+        User author = userRepository.save(new User("author", "author@mail.ru"));
+        Item item1 = new Item("name1", "description1", true);
+        item1.setOwner(owner);
+        itemRepository.save(item1);
+        Item item2 = new Item("name2", "description2", true);
+        item2.setOwner(owner);
+        itemRepository.save(item2);
+        LocalDateTime now = LocalDateTime.now();
+        commentRepository.save(new Comment("old", item1, author, now.minusDays(3)));
+        Comment middle = commentRepository.save(new Comment("middle", item1, author, now.minusDays(2)));
+        Comment latest = commentRepository.save(new Comment("latest", item1, author, now.minusDays(1)));
+        Comment other = commentRepository.save(new Comment("other", item2, author, now.minusDays(1)));
+
+        List<ItemCommentView> comments = commentRepository.findLatestByItemIdIn(
+                List.of(item1.getId(), item2.getId()), 2);
+
+        assertEquals(List.of(middle.getId(), latest.getId(), other.getId()),
+                comments.stream().map(ItemCommentView::getId).collect(Collectors.toList()));
+        assertEquals(item1.getId(), comments.get(0).getItemId());
+        assertEquals("middle", comments.get(0).getText());
+        assertEquals(author.getName(), comments.get(0).getAuthorName());
+    }
+}
@@ -5,17 +5,28 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.LastNextBookingTracker;
+import ru.practicum.shareit.cache.SecondLevelCacheInvalidator;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 @DataJpaTest
 class ItemRepositoryTest {
@@ -25,6 +36,10 @@ class ItemRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private TestEntityManager entityManager;
 
     @BeforeEach
     void setUp() {
@@ -63,6 +78,134 @@ class ItemRepositoryTest {
         assertTrue(items.isEmpty());
     }
 
+    @Test
+    @DisplayName("Поиск свободных вещей исключает только вещи с подтверждённым бронированием на это время")
+    void findAllFreeBySearch_whenApprovedOverlap_thenItemExcluded() {
+        Item busyItem = saveItemWithBooker();
+        Item waitingItem = itemRepository.save(items.get(1));
+        Item adjacentItem = items.get(2);
+        adjacentItem.setOwner(users.get(0));
+        itemRepository.save(adjacentItem);
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime to = from.plusDays(2);
+        saveBooking(busyItem, from.minusDays(1), from.plusHours(1));
+        saveBooking(waitingItem, from, to, BookingStatus.WAITING);
+        saveBooking(adjacentItem, to, to.plusDays(1));
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
+
+        List<Item> freeItems = itemRepository.findAllFreeBySearch("name", from, to, pageRequest).getContent();
+        List<Long> freeIds = itemRepository.findFreeIdsByIdIn(
+                List.of(busyItem.getId(), waitingItem.getId(), adjacentItem.getId()), from, to);
+
+        assertEquals(List.of(waitingItem.getId(), adjacentItem.getId()),
+                freeItems.stream().map(Item::getId).collect(Collectors.toList()));
+        assertEquals(List.of(waitingItem.getId(), adjacentItem.getId()),
+                freeIds.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Следующее бронирование заменяется только более ранним и сохраняется без нативного update")
+    void onBookingApproved_whenBookingIsEarlier_thenNextBookingReplaced() {
+        LastNextBookingTracker tracker = new LastNextBookingTracker(itemRepository,
+                mock(SecondLevelCacheInvalidator.class));
+        Item item = saveItemWithBooker();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking later = saveBooking(item, now.plusDays(5), now.plusDays(6));
+        Booking earlier = saveBooking(item, now.plusDays(2), now.plusDays(3));
+
+        tracker.onBookingApproved(later);
+        tracker.onBookingApproved(earlier);
+        tracker.onBookingApproved(later);
+        entityManager.flush();
+        entityManager.clear();
+
+        Item returnedItem = itemRepository.findWithLastAndNextBookingById(item.getId()).orElseThrow();
+        assertEquals(earlier.getId(), returnedItem.getNextBooking().getId());
+        assertNull(returnedItem.getLastBooking());
+    }
+
+    @Test
+    @DisplayName("Пересчёт вещей, у которых следующее бронирование уже началось")
+    void refreshWhereNextBookingStarted_whenNextBookingStarted_thenBookingsRolled() {
+        Item item = saveItemWithBooker();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking started = saveBooking(item, now.minusHours(2), now.plusDays(1));
+        Booking future = saveBooking(item, now.plusDays(2), now.plusDays(3));
+        item.setNextBooking(started);
+        entityManager.flush();
+
+        int updated = itemRepository.refreshWhereNextBookingStarted(now);
+        entityManager.clear();
+
+        Item returnedItem = itemRepository.findWithLastAndNextBookingById(item.getId()).orElseThrow();
+        assertEquals(1, updated);
+        assertEquals(started.getId(), returnedItem.getLastBooking().getId());
+        assertEquals(future.getId(), returnedItem.getNextBooking().getId());
+    }
+
+    @Test
+    @DisplayName("Перестроение только тех вещей, у которых колонки бронирований расходятся с бронированиями")
+    void rebuildWhereInconsistent_whenColumnsMissing_thenOnlyInconsistentItemsUpdated() {
+        Item item = saveItemWithBooker();
+        Item itemWithoutBookings = items.get(1);
+        itemRepository.save(itemWithoutBookings);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = saveBooking(item, now.minusDays(3), now.minusDays(2));
+        Booking future = saveBooking(item, now.plusDays(2), now.plusDays(3));
+        saveBooking(item, now.plusDays(1), now.plusDays(2), BookingStatus.REJECTED);
+
+        int fixed = itemRepository.rebuildWhereInconsistent(now, 1, itemRepository.findMaxId());
+        int fixedAgain = itemRepository.rebuildWhereInconsistent(now, 1, itemRepository.findMaxId());
+        entityManager.clear();
+
+        Item returnedItem = itemRepository.findWithLastAndNextBookingById(item.getId()).orElseThrow();
+        assertEquals(1, fixed);
+        assertEquals(0, fixedAgain);
+        assertEquals(past.getId(), returnedItem.getLastBooking().getId());
+        assertEquals(future.getId(), returnedItem.getNextBooking().getId());
+    }
+
+    @Test
+    @DisplayName("После удаления бронирующего следующим становится другое подтверждённое бронирование")
+    void rebuildWhereInconsistentByIdIn_whenBookerDeleted_thenOtherApprovedBookingIsNext() {
+        Item item = saveItemWithBooker();
+        User otherBooker = userRepository.save(users.get(2));
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking deletedNext = saveBooking(item, now.plusDays(1), now.plusDays(2));
+        Booking otherNext = bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item,
+                otherBooker, BookingStatus.APPROVED));
+        item.setNextBooking(deletedNext);
+        entityManager.flush();
+
+        List<Long> itemIds = itemRepository.findIdsByLastOrNextBookingBookerId(users.get(1).getId());
+        userRepository.deleteById(users.get(1).getId());
+        userRepository.flush();
+        int updated = itemRepository.rebuildWhereInconsistentByIdIn(now, itemIds);
+        entityManager.clear();
+
+        Item returnedItem = itemRepository.findWithLastAndNextBookingById(item.getId()).orElseThrow();
+        assertEquals(List.of(item.getId()), itemIds);
+        assertEquals(1, updated);
+        assertEquals(otherNext.getId(), returnedItem.getNextBooking().getId());
+        assertNull(returnedItem.getLastBooking());
+    }
+
+    private Item saveItemWithBooker() {
+        userRepository.save(users.get(0));
+        userRepository.save(users.get(1));
+        return itemRepository.save(items.get(0));
+    }
+
+    private Booking saveBooking(Item item, LocalDateTime start, LocalDateTime end) {
+        return saveBooking(item, start, end, BookingStatus.APPROVED);
+    }
+
+    private Booking saveBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = bookingRepository.save(new Booking(null, start, end, item, users.get(1), status));
+        entityManager.flush();
+        return booking;
+    }
+
     private List<User> usersBuilder() {
         List<User> users = new ArrayList<>();
         for (int i = 1; i < 11; i++) {
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class DefaultItemSearchEngineTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User("owner", "owner@mail.ru"));
+        Item item = new Item("Аккумулятор", "Запасной аккумулятор для дрели", true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("По умолчанию поиск находит вещь по подстроке внутри слова, как прежний LIKE '%text%'")
+    void getItemsBySearch_whenDefaultEngineAndInfixText_thenItemFound() throws Exception {
+        assertTrue(itemSearchEngine instanceof TrigramItemSearchEngine);
+
+        mvc.perform(get("/items/search")
+                        .param("text", "ккум")
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Аккумулятор")));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+    private final PageRequestParams pageRequestParams = new PageRequestParams(0, 20, Sort.Direction.ASC, "id");
+    private List<Item> items = null;
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine itemSearchEngine;
+
+    @BeforeEach
+    void setUp() {
+        items = itemBuilder();
+    }
+
+    @Test
+    @DisplayName("Поиск по началу слова в названии и описании без учёта регистра")
+    void search_whenPrefixMatches_thenReturnedItems() {
+        Item drill = items.get(0);
+        Item screwdriver = items.get(1);
+        items.forEach(itemSearchEngine::index);
+        when(itemRepository.findAllById(List.of(drill.getId(), screwdriver.getId())))
+                .thenReturn(List.of(screwdriver, drill));
+
+        List<Item> foundItems = itemSearchEngine.search("ДРЕЛ", pageRequestParams);
+
+        assertEquals(List.of(drill, screwdriver), foundItems);
+    }
+
+    @Test
+    @DisplayName("Поиск по нескольким словам возвращает только вещи, содержащие все слова")
+    void search_whenSeveralWords_thenReturnedItemsWithAllWords() {
+        Item screwdriver = items.get(1);
+        items.forEach(itemSearchEngine::index);
+        when(itemRepository.findAllById(List.of(screwdriver.getId()))).thenReturn(List.of(screwdriver));
+
+        List<Item> foundItems = itemSearchEngine.search("дрель аккумуляторная", pageRequestParams);
+
+        assertEquals(List.of(screwdriver), foundItems);
+    }
+
+    @Test
+    @DisplayName("Недоступная вещь удаляется из индекса после обновления")
+    void search_whenItemBecameUnavailable_thenReturnedEmptyList() {
+        Item drill = items.get(0);
+        Item screwdriver = items.get(1);
+        items.forEach(itemSearchEngine::index);
+        drill.setAvailable(false);
+        itemSearchEngine.index(drill);
+        screwdriver.setName("Отвёртка");
+        screwdriver.setDescription("Крестовая");
+        itemSearchEngine.index(screwdriver);
+
+        List<Item> foundItems = itemSearchEngine.search("дрель", pageRequestParams);
+
+        assertTrue(foundItems.isEmpty());
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    @DisplayName("Постраничный поиск возвращает вещи со следующей страницы")
+    void search_whenSecondPage_thenReturnedNextItems() {
+        Item screwdriver = items.get(1);
+        items.forEach(itemSearchEngine::index);
+        when(itemRepository.findAllById(List.of(screwdriver.getId()))).thenReturn(List.of(screwdriver));
+
+        List<Item> foundItems = itemSearchEngine.search("дрель",
+                new PageRequestParams(1, 1, Sort.Direction.ASC, "id"));
+
+        assertEquals(List.of(screwdriver), foundItems);
+    }
+
+    @Test
+    @DisplayName("Поиск свободных вещей сохраняет порядок выдачи и отсчитывает страницу среди свободных")
+    void searchFree_whenFirstItemBusy_thenReturnedNextFreeItem() {
+        Item drill = items.get(0);
+        Item screwdriver = items.get(1);
+        items.forEach(itemSearchEngine::index);
+        LocalDateTime freeFrom = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime freeTo = freeFrom.plusDays(2);
+        when(itemRepository.findFreeIdsByIdIn(List.of(drill.getId(), screwdriver.getId()), freeFrom, freeTo))
+                .thenReturn(List.of(screwdriver.getId()));
+        when(itemRepository.findAllById(List.of(screwdriver.getId()))).thenReturn(List.of(screwdriver));
+
+        List<Item> firstPage = itemSearchEngine.searchFree("дрель", freeFrom, freeTo,
+                new PageRequestParams(0, 1, Sort.Direction.ASC, "id"));
+        List<Item> secondPage = itemSearchEngine.searchFree("дрель", freeFrom, freeTo,
+                new PageRequestParams(1, 1, Sort.Direction.ASC, "id"));
+
+        assertEquals(List.of(screwdriver), firstPage);
+        assertTrue(secondPage.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Индекс строится по всем вещам из БД")
+    void rebuild_whenItemsInDatabase_thenItemsSearchable() {
+        Item saw = items.get(2);
+        when(itemRepository.findAll()).thenReturn(items);
+        when(itemRepository.findAllById(List.of(saw.getId()))).thenReturn(List.of(saw));
+
+        itemSearchEngine.rebuild();
+        List<Item> foundItems = itemSearchEngine.search("пила", pageRequestParams);
+
+        assertEquals(List.of(saw), foundItems);
+    }
+
+    private List<Item> itemBuilder() {
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("Дрель", "Простая дрель", true));
+        items.add(new Item("Шуруповёрт", "Аккумуляторная дрель-шуруповёрт", true));
+        items.add(new Item("Пила", "Ручная пила по дереву", true));
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setId(i + 1L);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class InMemoryTrigramItemSearchEngineTest {
+    private static final LocalDateTime FREE_FROM = LocalDateTime.of(2030, 1, 4, 10, 0);
+    private static final LocalDateTime FREE_TO = FREE_FROM.plusDays(2);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+    private InMemoryTrigramItemSearchEngine itemSearchEngine;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(new User("name", "name@mail.ru"));
+        List<Item> items = List.of(
+                new Item("Дрель", "Простая дрель", true),
+                new Item("Шуруповёрт", "Аккумуляторная дрель-шуруповёрт", true),
+                new Item("Аккумулятор", "Запасной аккумулятор для дрели", false),
+                new Item("Пила", "Ручная пила по дереву", true),
+                new Item("Дрель ударная", "Дрель с аккумулятором", true),
+                new Item("Молоток", "Просто молоток", true)
+        );
+        items.forEach(item -> item.setOwner(user));
+        itemRepository.saveAll(items);
+        // Занятые на окно FREE_FROM..FREE_TO: первая дрель подтверждена, у ударной бронь только ожидает
+        bookingRepository.save(new Booking(null, FREE_FROM.minusDays(1), FREE_FROM.plusHours(1), items.get(0), user,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, FREE_FROM, FREE_TO, items.get(4), user, BookingStatus.WAITING));
+        itemSearchEngine = new InMemoryTrigramItemSearchEngine(itemRepository);
+        itemSearchEngine.rebuild();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"дрел", "ДрЕлЬ", "аккум", "ель-шу", "ст", "о", "", "дерев", "пила по", "нет такого"})
+    @DisplayName("Результаты триграммного поиска совпадают с результатами поиска через LIKE")
+    void search_whenAnyText_thenReturnedSameItemsAsLikeQuery(String text) {
+        PageRequestParams pageRequestParams = new PageRequestParams(0, 20, Sort.Direction.ASC, "id");
+
+        List<Long> expectedIds = itemRepository.findAllBySearch(text, pageRequestParams.getPageRequest()).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Long> foundIds = itemSearchEngine.search(text, pageRequestParams).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedIds, foundIds);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3})
+    @DisplayName("Постраничный триграммный поиск совпадает с постраничным поиском через LIKE")
+    void search_whenPaged_thenReturnedSamePageAsLikeQuery(int from) {
+        PageRequestParams pageRequestParams = new PageRequestParams(from, 1, Sort.Direction.ASC, "id");
+
+        List<Long> expectedIds = itemRepository.findAllBySearch("дрел", pageRequestParams.getPageRequest()).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Long> foundIds = itemSearchEngine.search("дрел", pageRequestParams).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedIds, foundIds);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2})
+    @DisplayName("Поиск свободных вещей совпадает с запросом LIKE с NOT EXISTS по бронированиям")
+    void searchFree_whenSomeItemsBooked_thenReturnedSameItemsAsAntiJoinQuery(int from) {
+        PageRequestParams pageRequestParams = new PageRequestParams(from, 1, Sort.Direction.ASC, "id");
+
+        List<Long> expectedIds = itemRepository.findAllFreeBySearch("дрел", FREE_FROM, FREE_TO,
+                        pageRequestParams.getPageRequest()).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        List<Long> foundIds = itemSearchEngine.searchFree("дрел", FREE_FROM, FREE_TO, pageRequestParams).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(expectedIds, foundIds);
+    }
+}
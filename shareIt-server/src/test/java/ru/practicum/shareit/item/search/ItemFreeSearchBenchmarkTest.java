@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Задержка поиска вещей, свободных в заданный период: LIKE с NOT EXISTS в БД и триграммный индекс в памяти
+ * с проверкой занятости кандидатов пачками.
+ * Запуск: mvn test -pl shareIt-server -Dtest=ItemFreeSearchBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g
+ * Параметры: -Dbenchmark.items (по умолчанию 100 000), -Dbenchmark.bookings — бронирований на вещь (по умолчанию 10).
+ */
+@Slf4j
+@DataJpaTest(showSql = false, properties = {
+        "logging.level.org.hibernate.SQL=OFF",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+        "logging.level.org.springframework.transaction=OFF",
+        "logging.level.org.springframework.transaction.interceptor=OFF",
+        "logging.level.org.springframework.orm.jpa=OFF"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemFreeSearchBenchmarkTest {
+    private static final String[] NAMES = {"Дрель", "Шуруповёрт", "Перфоратор", "Пила", "Молоток", "Лобзик",
+            "Болгарка", "Рубанок", "Стремянка", "Палатка", "Велосипед", "Самокат", "Проектор", "Фотоаппарат"};
+    private static final String[] QUERIES = {"дрел", "палатка", "ёрт", "нет такого"};
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int BATCH_SIZE = 10_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    @DisplayName("Задержка поиска свободных вещей: NOT EXISTS в БД против индекса в памяти")
+    void searchFree_antiJoinVersusInMemory() {
+        int itemsCount = Integer.getInteger("benchmark.items", 100_000);
+        int bookingsPerItem = Integer.getInteger("benchmark.bookings", 10);
+        InMemoryTrigramItemSearchEngine inMemoryEngine = new InMemoryTrigramItemSearchEngine(itemRepository);
+        TrigramItemSearchEngine sqlEngine = new TrigramItemSearchEngine(itemRepository);
+        seed(itemsCount, bookingsPerItem, inMemoryEngine);
+        log.info("Вещей: {}, бронирований: {}", itemsCount, (long) itemsCount * bookingsPerItem);
+        // Выходные посреди периода бронирований, когда занята заметная доля вещей
+        LocalDateTime freeFrom = BASE.plusDays(bookingsPerItem * 2L);
+        LocalDateTime freeTo = freeFrom.plusDays(2);
+        for (int from : new int[]{0, 100}) {
+            PageRequestParams pageRequestParams = new PageRequestParams(from, 20, Sort.Direction.ASC, "id");
+            for (String query : QUERIES) {
+                List<Long> sqlIds = measure("NOT EXISTS", query, from, () ->
+                        sqlEngine.searchFree(query, freeFrom, freeTo, pageRequestParams));
+                List<Long> inMemoryIds = measure("IN-MEMORY ", query, from, () ->
+                        inMemoryEngine.searchFree(query, freeFrom, freeTo, pageRequestParams));
+                assertEquals(sqlIds, inMemoryIds);
+            }
+        }
+    }
+
+    private List<Long> measure(String engine, String query, int from, Supplier<List<Item>> search) {
+        List<Item> items = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            items = search.get();
+        }
+        long[] latencies = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            items = search.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        log.info("{} \"{}\" с {}: p50 = {} мкс, p99 = {} мкс, найдено на странице {}", engine, query, from,
+                latencies[MEASURED_ITERATIONS / 2] / 1_000,
+                latencies[MEASURED_ITERATIONS * 99 / 100] / 1_000, items.size());
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private void seed(int itemsCount, int bookingsPerItem, InMemoryTrigramItemSearchEngine itemSearchEngine) {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru')");
+        Random random = new Random(42);
+        List<Object[]> items = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> bookings = new ArrayList<>(BATCH_SIZE);
+        long bookingId = 1;
+        for (long id = 1; id <= itemsCount; id++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(1000);
+            String description = NAMES[random.nextInt(NAMES.length)].toLowerCase() + " модель " + random.nextInt(100_000);
+            items.add(new Object[]{id, name, description});
+            Item item = new Item(name, description, true);
+            item.setId(id);
+            itemSearchEngine.index(item);
+            // Бронирования по 1-3 суток с промежутками, примерно две трети подтверждены
+            long hour = random.nextInt(48);
+            for (int i = 0; i < bookingsPerItem; i++) {
+                long start = hour;
+                hour += 24 + random.nextInt(48);
+                bookings.add(new Object[]{bookingId++, Timestamp.valueOf(BASE.plusHours(start)),
+                        Timestamp.valueOf(BASE.plusHours(hour)), id, random.nextInt(3) == 0 ? "WAITING" : "APPROVED"});
+                hour += random.nextInt(24);
+            }
+            if (items.size() == BATCH_SIZE || id == itemsCount) {
+                jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id) "
+                        + "values (?, ?, ?, true, 1)", items);
+                jdbcTemplate.batchUpdate("insert into bookings (id, start_date, end_date, item_id, booker_id, status) "
+                        + "values (?, ?, ?, ?, 1, ?)", bookings);
+                items.clear();
+                bookings.clear();
+            }
+        }
+    }
+}
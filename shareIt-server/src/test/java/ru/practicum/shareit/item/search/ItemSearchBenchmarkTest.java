@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.params.PageRequestParams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение задержки поиска через LIKE и через триграммный индекс в памяти.
+ * Запуск: mvn test -pl shareIt-server -Dtest=ItemSearchBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g
+ * Количество вещей задаётся через -Dbenchmark.items (по умолчанию 1 000 000).
+ */
+@Slf4j
+@DataJpaTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemSearchBenchmarkTest {
+    private static final String[] NAMES = {"Дрель", "Шуруповёрт", "Перфоратор", "Пила", "Молоток", "Лобзик",
+            "Болгарка", "Рубанок", "Стремянка", "Палатка", "Велосипед", "Самокат", "Проектор", "Фотоаппарат"};
+    private static final String[] ADJECTIVES = {"аккумуляторная", "ударная", "ручная", "сетевая", "компактная",
+            "профессиональная", "садовая", "туристическая", "складная", "новая"};
+    private static final String[] QUERIES = {"дрел", "аккум", "ёрт", "палатка туристическая", "нет такого"};
+    private static final int BATCH_SIZE = 10_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    @DisplayName("Задержка поиска: LIKE против триграммного индекса в памяти")
+    void search_likeVersusTrigram() {
+        int itemsCount = Integer.getInteger("benchmark.items", 1_000_000);
+        InMemoryTrigramItemSearchEngine itemSearchEngine = new InMemoryTrigramItemSearchEngine(itemRepository);
+        seed(itemsCount, itemSearchEngine);
+        PageRequestParams pageRequestParams = new PageRequestParams(0, 10, Sort.Direction.ASC, "id");
+        log.info("Вещей: {}", itemsCount);
+        for (String query : QUERIES) {
+            List<Long> likeIds = measure("LIKE   ", query, () ->
+                    itemRepository.findAllBySearch(query, pageRequestParams.getPageRequest()).getContent());
+            List<Long> trigramIds = measure("TRIGRAM", query, () -> itemSearchEngine.search(query, pageRequestParams));
+            assertEquals(likeIds, trigramIds);
+        }
+    }
+
+    private List<Long> measure(String engine, String query, Supplier<List<Item>> search) {
+        List<Item> items = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            items = search.get();
+        }
+        long[] latencies = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            items = search.get();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        log.info("{} \"{}\": p50 = {} мкс, p99 = {} мкс, найдено на странице {}", engine, query,
+                latencies[MEASURED_ITERATIONS / 2] / 1_000,
+                latencies[MEASURED_ITERATIONS * 99 / 100] / 1_000, items.size());
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    private void seed(int itemsCount, InMemoryTrigramItemSearchEngine itemSearchEngine) {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@mail.ru')");
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= itemsCount; id++) {
+            String name = NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(1000);
+            String description = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                    + NAMES[random.nextInt(NAMES.length)].toLowerCase() + " модель " + random.nextInt(100_000);
+            boolean available = random.nextInt(10) != 0;
+            batch.add(new Object[]{id, name, description, available});
+            Item item = new Item(name, description, available);
+            item.setId(id);
+            itemSearchEngine.index(item);
+            if (batch.size() == BATCH_SIZE || id == itemsCount) {
+                jdbcTemplate.batchUpdate("insert into items (id, name, description, is_available, owner_id) "
+                        + "values (?, ?, ?, ?, 1)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
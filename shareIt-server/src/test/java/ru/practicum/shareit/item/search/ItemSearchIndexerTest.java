@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexerTest {
+    private final Item item = new Item("Дрель", "Простая дрель", true);
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @InjectMocks
+    private ItemSearchIndexer itemSearchIndexer;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Вне транзакции вещь сразу попадает в индекс")
+    void index_whenNoTransaction_thenIndexedImmediately() {
+        itemSearchIndexer.index(item);
+
+        verify(itemSearchEngine).index(item);
+    }
+
+    @Test
+    @DisplayName("В транзакции вещь попадает в индекс только после фиксации")
+    void index_whenTransactionCommitted_thenIndexedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        itemSearchIndexer.index(item);
+
+        verify(itemSearchEngine, never()).index(item);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(itemSearchEngine).index(item);
+    }
+
+    @Test
+    @DisplayName("При откате транзакции индекс не меняется")
+    void remove_whenTransactionRolledBack_thenIndexNotChanged() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        itemSearchIndexer.remove(List.of(1L, 2L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(
+                        TransactionSynchronization.STATUS_ROLLED_BACK));
+        verifyNoInteractions(itemSearchEngine);
+    }
+}
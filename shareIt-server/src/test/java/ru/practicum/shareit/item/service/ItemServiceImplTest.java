@@ -7,16 +7,20 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowResultDto;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.NotOwnerOrBookerException;
 import ru.practicum.shareit.exception.NotValidException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemCommentView;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemGetResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -24,26 +28,34 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndexer;
 import ru.practicum.shareit.params.PageRequestParams;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
-import static ru.practicum.shareit.booking.BookingStatus.WAITING;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
@@ -52,13 +64,17 @@ class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserLookup userLookup;
     @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemSearchIndexer itemSearchIndexer;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -74,7 +90,7 @@ class ItemServiceImplTest {
         long userId = 1;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemDto itemDto = ItemMapper.toItemDto(items.get(0));
         Item item = ItemMapper.toItem(itemDto);
         item.setId(1L);
@@ -84,6 +100,7 @@ class ItemServiceImplTest {
 
         assertEquals(itemDto.getName(), returnedItemDto.getName());
         assertEquals(itemDto.getDescription(), returnedItemDto.getDescription());
+        verify(itemSearchIndexer).index(item);
     }
 
     @Test
@@ -92,7 +109,7 @@ class ItemServiceImplTest {
         long userId = 1;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         Item item = items.get(0);
         ItemRequest itemRequest = new ItemRequest(1L, "описание", user, LocalDateTime.now());
         item.setRequest(itemRequest);
@@ -114,7 +131,7 @@ class ItemServiceImplTest {
         long userId = 1;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         Item item = items.get(0);
         ItemRequest itemRequest = new ItemRequest(1L, "описание", user, LocalDateTime.now());
         item.setRequest(itemRequest);
@@ -136,7 +153,8 @@ class ItemServiceImplTest {
         long userId = 1;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userLookup.getUser(userId))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId)));
         Item item = items.get(0);
         ItemDto itemDto = ItemMapper.toItemDto(item);
 
@@ -156,7 +174,7 @@ class ItemServiceImplTest {
         long userId = 1L;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemDto itemDto = new ItemDto("new nsme", "new description", false, null);
         long itemDtoId = 1L;
         itemDto.setId(itemDtoId);
@@ -169,13 +187,16 @@ class ItemServiceImplTest {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 item.getOwner(),
-                item.getRequest()
+                item.getRequest(),
+                item.getLastBooking(),
+                item.getNextBooking()
         );
         when(itemRepository.save(any())).thenReturn(updatedItem);
 
         ItemDto returnedItemDto = itemService.updateItem(userId, itemDto);
 
         assertEquals(ItemMapper.toItemDto(updatedItem), returnedItemDto);
+        verify(itemSearchIndexer).index(updatedItem);
     }
 
     @Test
@@ -184,7 +205,7 @@ class ItemServiceImplTest {
         long userId = 1L;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemDto itemDto = new ItemDto(null, null, null, null);
         long itemDtoId = 1L;
         itemDto.setId(itemDtoId);
@@ -197,7 +218,9 @@ class ItemServiceImplTest {
                 item.getDescription(),
                 item.getAvailable(),
                 item.getOwner(),
-                item.getRequest()
+                item.getRequest(),
+                item.getLastBooking(),
+                item.getNextBooking()
         );
         when(itemRepository.save(any())).thenReturn(updatedItem);
 
@@ -212,7 +235,7 @@ class ItemServiceImplTest {
         long userId = 1L;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemDto itemDto = new ItemDto("new nsme", "new description", false, null);
         long itemDtoId = 1L;
         itemDto.setId(itemDtoId);
@@ -234,7 +257,7 @@ class ItemServiceImplTest {
         long userId = 1L;
         User user = users.get(0);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemDto itemDto = new ItemDto("new nsme", "new description", false, null);
         long itemDtoId = 1L;
         itemDto.setId(itemDtoId);
@@ -258,13 +281,12 @@ class ItemServiceImplTest {
     @DisplayName("Успешное получение вещи по ид, когда пользователь не владелец")
     void getItemById_whenUserNotOwner_thenReturnedItemDto() {
         long itemId = 1L;
-        long userId = 1L;
-        User user = users.get(0);
-        user.setId(userId);
+        long userId = 2L;
+        User owner = users.get(0);
+        owner.setId(1L);
         Item item = items.get(0);
         item.setId(itemId);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItemId(itemId)).thenReturn(new ArrayList<>());
+        when(itemRepository.findWithLastAndNextBookingById(itemId)).thenReturn(Optional.of(item));
         when(commentRepository.findByItemId(itemId)).thenReturn(new ArrayList<>());
 
         ItemGetResponseDto returnedItemGetResponseDto = itemService.getItemById(userId, itemId);
@@ -272,6 +294,55 @@ class ItemServiceImplTest {
         assertEquals(item.getName(), returnedItemGetResponseDto.getName());
         assertEquals(item.getDescription(), returnedItemGetResponseDto.getDescription());
         assertTrue(returnedItemGetResponseDto.getComments().isEmpty());
+        assertNull(returnedItemGetResponseDto.getLastBooking());
+        assertNull(returnedItemGetResponseDto.getNextBooking());
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemId(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Успешное получение вещи по ид с последним и следующим бронированием, когда пользователь владелец")
+    void getItemById_whenUserIsOwner_thenReturnedItemDtoWithBookings() {
+        long itemId = 1L;
+        long userId = 1L;
+        User user = users.get(0);
+        user.setId(userId);
+        Item item = items.get(0);
+        item.setId(itemId);
+        Booking lastBooking = bookingBuilder(1L, item, LocalDateTime.now().minusDays(3));
+        Booking nextBooking = bookingBuilder(2L, item, LocalDateTime.now().plusDays(3));
+        item.setLastBooking(lastBooking);
+        item.setNextBooking(nextBooking);
+        when(itemRepository.findWithLastAndNextBookingById(itemId)).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemId(itemId)).thenReturn(new ArrayList<>());
+
+        ItemGetResponseDto returnedItemGetResponseDto = itemService.getItemById(userId, itemId);
+
+        assertEquals(lastBooking.getId(), returnedItemGetResponseDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), returnedItemGetResponseDto.getNextBooking().getId());
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemId(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Получение вещи по ид владельцем, когда следующее бронирование уже началось")
+    void getItemById_whenNextBookingStarted_thenReturnedItemDtoWithActualBookings() {
+        long itemId = 1L;
+        long userId = 1L;
+        User user = users.get(0);
+        user.setId(userId);
+        Item item = items.get(0);
+        item.setId(itemId);
+        item.setNextBooking(bookingBuilder(1L, item, LocalDateTime.now().minusHours(1)));
+        when(itemRepository.findWithLastAndNextBookingById(itemId)).thenReturn(Optional.of(item));
+        ItemBookingView lastBooking = itemBookingViewBuilder(1L, LocalDateTime.now().minusHours(1));
+        ItemBookingView nextBooking = itemBookingViewBuilder(2L, LocalDateTime.now().plusDays(3));
+        when(bookingRepository.findLastAndNextApprovedByItemId(eq(itemId), any()))
+                .thenReturn(List.of(lastBooking, nextBooking));
+        when(commentRepository.findByItemId(itemId)).thenReturn(new ArrayList<>());
+
+        ItemGetResponseDto returnedItemGetResponseDto = itemService.getItemById(userId, itemId);
+
+        assertEquals(lastBooking.getId(), returnedItemGetResponseDto.getLastBooking().getId());
+        assertEquals(nextBooking.getId(), returnedItemGetResponseDto.getNextBooking().getId());
     }
 
     @Test
@@ -283,7 +354,7 @@ class ItemServiceImplTest {
         User user2 = users.get(1);
         user1.setId(user1Id);
         user2.setId(user2Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
         PageRequest pageRequest = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
         long itemId1 = 1L;
         long itemId2 = 2L;
@@ -292,15 +363,17 @@ class ItemServiceImplTest {
         item2.setOwner(user1);
         item1.setId(itemId1);
         item2.setId(itemId2);
-        Page<Item> itemsPage = new PageImpl<>(List.of(item1, item2));
-        when(itemRepository.findByOwnerId(user1Id, pageRequest)).thenReturn(itemsPage);
-        Booking booking1 = new Booking(1L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), item1,
-                user2, WAITING);
-        Booking booking2 = new Booking(2L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), item2,
-                user2, WAITING);
-        List<Booking> bookings = List.of(booking1, booking2);
-        when(bookingRepository.findByItemIdIn(List.of(itemId1, itemId2))).thenReturn(bookings);
-        when(commentRepository.findByItemIdIn(List.of(itemId1, itemId2))).thenReturn(new ArrayList<>());
+        Slice<Item> itemsSlice = new SliceImpl<>(List.of(item1, item2));
+        when(itemRepository.findByOwnerId(user1Id, pageRequest)).thenReturn(itemsSlice);
+        Booking lastBooking = bookingBuilder(1L, item1, LocalDateTime.now().minusDays(3));
+        item1.setLastBooking(lastBooking);
+        Booking nextBooking = bookingBuilder(2L, item2, LocalDateTime.now().plusDays(3));
+        item2.setNextBooking(nextBooking);
+        ItemCommentView comment = mock(ItemCommentView.class);
+        when(comment.getItemId()).thenReturn(itemId1);
+        when(comment.getText()).thenReturn("text");
+        when(commentRepository.findLatestByItemIdIn(eq(List.of(itemId1, itemId2)), anyInt()))
+                .thenReturn(List.of(comment));
 
         List<ItemGetResponseDto> itemGetResponseDtoList = itemService.getAllItemsByUserId(user1Id,
                 new PageRequestParams(0, 20, Sort.Direction.ASC, "id"));
@@ -310,6 +383,48 @@ class ItemServiceImplTest {
         assertEquals(item1.getDescription(), itemGetResponseDtoList.get(0).getDescription());
         assertEquals(item2.getName(), itemGetResponseDtoList.get(1).getName());
         assertEquals(item2.getDescription(), itemGetResponseDtoList.get(1).getDescription());
+        assertEquals(lastBooking.getId(), itemGetResponseDtoList.get(0).getLastBooking().getId());
+        assertNull(itemGetResponseDtoList.get(0).getNextBooking());
+        assertEquals("text", itemGetResponseDtoList.get(0).getComments().get(0).getText());
+        assertNull(itemGetResponseDtoList.get(1).getLastBooking());
+        assertEquals(nextBooking.getId(), itemGetResponseDtoList.get(1).getNextBooking().getId());
+        assertTrue(itemGetResponseDtoList.get(1).getComments().isEmpty());
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemIdIn(any(), any());
+    }
+
+    @Test
+    @DisplayName("Получение списка вещей владельцем, когда следующее бронирование одной из вещей уже началось")
+    void getAllItemsByUserId_whenNextBookingStarted_thenReturnedActualBookings() {
+        long userId = 1L;
+        User user = users.get(0);
+        user.setId(userId);
+        when(userLookup.getUser(userId)).thenReturn(user);
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
+        long itemId1 = 1L;
+        long itemId2 = 2L;
+        Item item1 = items.get(0);
+        Item item2 = items.get(2);
+        item2.setOwner(user);
+        item1.setId(itemId1);
+        item2.setId(itemId2);
+        item1.setNextBooking(bookingBuilder(1L, item1, LocalDateTime.now().minusHours(1)));
+        Booking nextBooking = bookingBuilder(2L, item2, LocalDateTime.now().plusDays(3));
+        item2.setNextBooking(nextBooking);
+        when(itemRepository.findByOwnerId(userId, pageRequest)).thenReturn(new SliceImpl<>(List.of(item1, item2)));
+        ItemBookingView lastBooking = itemBookingViewBuilder(1L, LocalDateTime.now().minusHours(1));
+        when(lastBooking.getItemId()).thenReturn(itemId1);
+        when(bookingRepository.findLastAndNextApprovedByItemIdIn(eq(List.of(itemId1)), any()))
+                .thenReturn(List.of(lastBooking));
+        when(commentRepository.findLatestByItemIdIn(eq(List.of(itemId1, itemId2)), anyInt()))
+                .thenReturn(new ArrayList<>());
+
+        List<ItemGetResponseDto> itemGetResponseDtoList = itemService.getAllItemsByUserId(userId,
+                new PageRequestParams(0, 20, Sort.Direction.ASC, "id"));
+
+        assertEquals(lastBooking.getId(), itemGetResponseDtoList.get(0).getLastBooking().getId());
+        assertNull(itemGetResponseDtoList.get(0).getNextBooking());
+        assertNull(itemGetResponseDtoList.get(1).getLastBooking());
+        assertEquals(nextBooking.getId(), itemGetResponseDtoList.get(1).getNextBooking().getId());
     }
 
     @Test
@@ -321,7 +436,7 @@ class ItemServiceImplTest {
         User user2 = users.get(1);
         user1.setId(user1Id);
         user2.setId(user2Id);
-        when(userRepository.findById(user1Id)).thenReturn(Optional.of(user1));
+        when(userLookup.getUser(user1Id)).thenReturn(user1);
         PageRequest pageRequest = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
         long itemId1 = 1L;
         long itemId2 = 2L;
@@ -330,36 +445,57 @@ class ItemServiceImplTest {
         item2.setOwner(user1);
         item1.setId(itemId1);
         item2.setId(itemId2);
-        Page<Item> itemsPage = new PageImpl<>(List.of(item1, item2));
-        when(itemRepository.findByOwnerId(user1Id, pageRequest)).thenReturn(itemsPage);
-        when(bookingRepository.findByItemIdIn(List.of(itemId1, itemId2))).thenReturn(new ArrayList<>());
+        Slice<Item> itemsSlice = new SliceImpl<>(List.of(item1, item2));
+        when(itemRepository.findByOwnerId(user1Id, pageRequest)).thenReturn(itemsSlice);
+        ItemCommentView comment = mock(ItemCommentView.class);
+        when(comment.getItemId()).thenReturn(itemId2);
+        when(comment.getText()).thenReturn("text");
+        when(commentRepository.findLatestByItemIdIn(eq(List.of(itemId1, itemId2)), anyInt()))
+                .thenReturn(List.of(comment));
 
         List<ItemGetResponseDto> itemGetResponseDtoList = itemService.getAllItemsByUserId(user1Id,
                 new PageRequestParams(0, 20, Sort.Direction.ASC, "id"));
 
-        verify(commentRepository, never()).findByItemIdIn(any());
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemIdIn(any(), any());
         assertEquals(2, itemGetResponseDtoList.size());
         assertEquals(item1.getName(), itemGetResponseDtoList.get(0).getName());
         assertEquals(item1.getDescription(), itemGetResponseDtoList.get(0).getDescription());
         assertEquals(item2.getName(), itemGetResponseDtoList.get(1).getName());
         assertEquals(item2.getDescription(), itemGetResponseDtoList.get(1).getDescription());
+        assertTrue(itemGetResponseDtoList.get(0).getComments().isEmpty());
+        assertEquals("text", itemGetResponseDtoList.get(1).getComments().get(0).getText());
+    }
+
+    @Test
+    @DisplayName("Получение пустого списка вещей владельцем, когда у него нет вещей")
+    void getAllItemsByUserId_whenNoItems_thenReturnedEmptyList() {
+        long userId = 1L;
+        User user = users.get(0);
+        user.setId(userId);
+        when(userLookup.getUser(userId)).thenReturn(user);
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
+        when(itemRepository.findByOwnerId(userId, pageRequest)).thenReturn(new SliceImpl<>(List.of()));
+
+        List<ItemGetResponseDto> itemGetResponseDtoList = itemService.getAllItemsByUserId(userId,
+                new PageRequestParams(0, 20, Sort.Direction.ASC, "id"));
+
+        assertTrue(itemGetResponseDtoList.isEmpty());
+        verify(bookingRepository, never()).findLastAndNextApprovedByItemIdIn(any(), any());
     }
 
     @Test
     @DisplayName("Получение списка вещей по поисковому запросу, когда в БД 2 вещь")
     void getItemsBySearch_when2Items_thenReturnedItemDtoList() {
-        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by(Sort.Direction.ASC, "id"));
         long itemId1 = 1L;
         long itemId2 = 2L;
         Item item1 = items.get(0);
         Item item2 = items.get(1);
         item1.setId(itemId1);
         item2.setId(itemId2);
-        Page<Item> itemsPage = new PageImpl<>(List.of(item1, item2));
-        when(itemRepository.findAllBySearch("text", pageRequest)).thenReturn(itemsPage);
+        PageRequestParams pageRequestParams = new PageRequestParams(0, 20, Sort.Direction.ASC, "id");
+        when(itemSearchEngine.search("text", pageRequestParams)).thenReturn(List.of(item1, item2));
 
-        List<ItemDto> returnedItemDtos = itemService.getItemsBySearch("text",
-                new PageRequestParams(0, 20, Sort.Direction.ASC, "id"));
+        List<ItemDto> returnedItemDtos = itemService.getItemsBySearch("text", pageRequestParams);
 
         assertEquals(2, returnedItemDtos.size());
         assertEquals(item1.getName(), returnedItemDtos.get(0).getName());
@@ -368,6 +504,35 @@ class ItemServiceImplTest {
         assertEquals(item2.getDescription(), returnedItemDtos.get(1).getDescription());
     }
 
+    @Test
+    @DisplayName("Получение списка свободных вещей по поисковому запросу")
+    void getFreeItemsBySearch_whenWindowIsValid_thenReturnedItemDtoList() {
+        Item item = items.get(0);
+        item.setId(1L);
+        PageRequestParams pageRequestParams = new PageRequestParams(0, 20, Sort.Direction.ASC, "id");
+        LocalDateTime freeFrom = LocalDateTime.now().plusDays(1);
+        LocalDateTime freeTo = freeFrom.plusDays(2);
+        when(itemSearchEngine.searchFree("text", freeFrom, freeTo, pageRequestParams)).thenReturn(List.of(item));
+
+        List<ItemDto> returnedItemDtos = itemService.getFreeItemsBySearch("text", freeFrom, freeTo, pageRequestParams);
+
+        assertEquals(1, returnedItemDtos.size());
+        assertEquals(item.getName(), returnedItemDtos.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Ошибка NotValidException при поиске свободных вещей, когда период задан неверно")
+    void getFreeItemsBySearch_whenWindowIsNotValid_thenThrowNotValidException() {
+        PageRequestParams pageRequestParams = new PageRequestParams(0, 20, Sort.Direction.ASC, "id");
+        LocalDateTime freeFrom = LocalDateTime.now().plusDays(1);
+
+        assertThrows(NotValidException.class,
+                () -> itemService.getFreeItemsBySearch("text", freeFrom, freeFrom, pageRequestParams));
+        assertThrows(NotValidException.class,
+                () -> itemService.getFreeItemsBySearch("text", freeFrom, null, pageRequestParams));
+        verify(itemSearchEngine, never()).searchFree(any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("Добавление комментария к вещи, когда пользователь арендатор")
     void addComment_whenUserIsBooker_thenReturnedCommentDto() {
@@ -378,7 +543,7 @@ class ItemServiceImplTest {
         long userId = 1L;
         User user = users.get(1);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         Booking booking = new Booking(1L, LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2), item,
                 user, APPROVED);
         List<Booking> bookings = List.of(booking);
@@ -403,7 +568,7 @@ class ItemServiceImplTest {
         long userId = 1L;
         User user = users.get(1);
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         when(bookingRepository.findByItemIdAndBookerId(itemId, userId)).thenReturn(new ArrayList<>());
         CommentDto commentDto = new CommentDto(null, "text", user.getName(), LocalDateTime.now());
 
@@ -416,6 +581,47 @@ class ItemServiceImplTest {
         verify(commentRepository, never()).save(any());
     }
 
+    private Booking bookingBuilder(long id, Item item, LocalDateTime start) {
+        return new Booking(id, start, start.plusDays(1), item, users.get(1), APPROVED);
+    }
+
+    private ItemBookingView itemBookingViewBuilder(long id, LocalDateTime start) {
+        ItemBookingView itemBookingView = mock(ItemBookingView.class);
+        when(itemBookingView.getId()).thenReturn(id);
+        when(itemBookingView.getStartDate()).thenReturn(start);
+        return itemBookingView;
+    }
+
+    @Test
+    @DisplayName("Пакетный импорт вещей: валидные строки сохраняются и индексируются, невалидные попадают в отчёт")
+    void addItems_whenSomeRowsNotValid_thenValidRowsSavedAndErrorsReported() {
+        long userId = 1;
+        User user = users.get(0);
+        user.setId(userId);
+        when(userLookup.getUser(userId)).thenReturn(user);
+        List<ItemDto> itemDtos = List.of(
+                new ItemDto("name1", "description1", true, null),
+                new ItemDto("", "description2", true, null),
+                new ItemDto("name3", "description3", null, null),
+                new ItemDto("name4", "description4", true, 5L));
+        when(itemRequestRepository.findAllById(Set.of(5L))).thenReturn(List.of());
+        when(itemRepository.saveAllAndFlush(any())).thenAnswer(invocation -> {
+            List<Item> savedItems = invocation.getArgument(0);
+            savedItems.get(0).setId(7L);
+            return savedItems;
+        });
+
+        BatchResultDto result = itemService.addItems(userId, itemDtos);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(3, result.getRejected());
+        assertEquals(BatchRowResultDto.created(0, 7), result.getRows().get(0));
+        assertEquals(BatchRowResultDto.rejected(1, "Название вещи не может быть пустым."), result.getRows().get(1));
+        assertEquals(BatchRowResultDto.rejected(2, "Доступность не может быть null."), result.getRows().get(2));
+        assertEquals(BatchRowResultDto.rejected(3, "Запрос с ИД 5 отсутствует в БД."), result.getRows().get(3));
+        verify(itemSearchIndexer).index(anyList());
+    }
+
     private List<User> usersBuilder() {
         List<User> users = new ArrayList<>();
         for (int i = 1; i < 11; i++) {
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestLogSamplingFilterTest {
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final Logger serviceLogger = loggerContext.getLogger("ru.practicum.shareit.booking.service.BookingServiceImpl");
+
+    @Test
+    @DisplayName("INFO-записи приложения пропускаются в среднем одна из sampleEvery")
+    void decide_whenApplicationInfo_thenSampled() {
+        RequestLogSamplingFilter filter = filter(10);
+
+        int written = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.decide(null, serviceLogger, Level.INFO, "Бронирование {} возвращено.", null, null)
+                    == FilterReply.NEUTRAL) {
+                written++;
+            }
+        }
+
+        assertTrue(written > 700 && written < 1300, "Записано " + written);
+    }
+
+    @Test
+    @DisplayName("Записи одного запроса оставляются или отбрасываются вместе")
+    void decide_whenSameRequest_thenSameReplyForAllLines() throws Exception {
+        RequestLogSamplingFilter filter = filter(10);
+        Logger controllerLogger = loggerContext.getLogger("ru.practicum.shareit.booking.controller.BookingController");
+        RequestLogSampleMdcFilter mdcFilter = new RequestLogSampleMdcFilter();
+        AtomicInteger written = new AtomicInteger();
+
+        for (int i = 0; i < 10_000; i++) {
+            mdcFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+                FilterReply reply = filter.decide(null, controllerLogger, Level.INFO, "Получен запрос.", null, null);
+                for (int line = 0; line < 5; line++) {
+                    assertEquals(reply, filter.decide(null, serviceLogger, Level.INFO, "Бронирование {} возвращено.",
+                            null, null));
+                }
+                if (reply == FilterReply.NEUTRAL) {
+                    written.incrementAndGet();
+                }
+            });
+        }
+
+        assertTrue(written.get() > 700 && written.get() < 1300, "Записано запросов " + written.get());
+        assertNull(MDC.get(RequestLogSamplingFilter.REQUEST_SAMPLE_KEY));
+    }
+
+    @Test
+    @DisplayName("WARN и ERROR приложения и записи других библиотек не отбрасываются")
+    void decide_whenWarnOrOtherLogger_thenNeutral() {
+        RequestLogSamplingFilter filter = filter(1_000_000);
+        Logger hibernateLogger = loggerContext.getLogger("org.hibernate.SQL");
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, serviceLogger, Level.WARN, "", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, serviceLogger, Level.ERROR, "", null, null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, hibernateLogger, Level.INFO, "", null, null));
+        }
+    }
+
+    private static RequestLogSamplingFilter filter(int sampleEvery) {
+        RequestLogSamplingFilter filter = new RequestLogSamplingFilter();
+        filter.setSampleEvery(sampleEvery);
+        filter.start();
+        return filter;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class PrometheusMetricsTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Эндпоинты, методы сервисов, запросы репозиториев, пул Hikari и JVM публикуются для Prometheus")
+    void prometheus_whenRequestServed_thenTimersWithHistograms() throws Exception {
+        User user = userRepository.save(new User("name", "metrics@mail.ru"));
+        mvc.perform(get("/users/{id}", user.getId()))
+                .andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{application=\"shareit-server\""),
+                        containsString("uri=\"/users/{id}\""),
+                        containsString("shareit_service_seconds_bucket{application=\"shareit-server\","
+                                + "class=\"ru.practicum.shareit.user.service.UserServiceImpl\""),
+                        containsString("method=\"getUserById\""),
+                        containsString("spring_data_repository_invocations_seconds_bucket"),
+                        containsString("repository=\"UserRepository\""),
+                        containsString("hikaricp_connections_acquire_seconds_bucket"),
+                        containsString("jvm_memory_used_bytes"))));
+    }
+}
@@ -8,8 +8,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -22,7 +22,7 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -44,7 +44,7 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserLookup userLookup;
     @Mock
     private ItemRepository itemRepository;
     @InjectMocks
@@ -62,7 +62,7 @@ class ItemRequestServiceImplTest {
         User user = users.get(0);
         long userId = 1;
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemRequestDto itemRequestDto = new ItemRequestDto("описание запроса", null);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto);
         itemRequest.setRequestor(user);
@@ -77,7 +77,8 @@ class ItemRequestServiceImplTest {
     @DisplayName("Ошибка NotFoundException при добавлении запроса, когда пользователя нет в БД")
     void addItemRequest_whenUserNotPresent_thenThrowNotFoundException() {
         long userId = 1;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userLookup.getUser(userId))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId)));
         ItemRequestDto itemRequestDto = new ItemRequestDto("описание запроса", null);
 
         NotFoundException exception = assertThrows(
@@ -94,7 +95,7 @@ class ItemRequestServiceImplTest {
         User user = users.get(0);
         long userId = 1;
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         when(itemRequestRepository.findByRequestorIdOrderByIdDesc(userId)).thenReturn(new ArrayList<>());
 
         List<ItemRequestDto> itemRequestDtos = itemRequestService.getAllItemRequestsByUserId(userId);
@@ -108,7 +109,7 @@ class ItemRequestServiceImplTest {
         User user = users.get(0);
         long userId = 1;
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemRequest itemRequest1 = new ItemRequest();
         ItemRequest itemRequest2 = new ItemRequest();
         ItemRequest itemRequest3 = new ItemRequest();
@@ -124,7 +125,8 @@ class ItemRequestServiceImplTest {
     @DisplayName("Ошибка NotFoundException при получении списка запросов пользователя, когда пользователя нет в БД")
     void getAllItemRequestsByUserId_whenUserNotPresent_thenThrowNotFoundException() {
         long userId = 1;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userLookup.getUser(userId))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId)));
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -140,15 +142,15 @@ class ItemRequestServiceImplTest {
         User user = users.get(0);
         long userId = 1;
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         ItemRequest itemRequest1 = new ItemRequest(2L, "описание 2", users.get(1), LocalDateTime.now().minusDays(2));
         ItemRequest itemRequest2 = new ItemRequest(3L, "описание 3", users.get(2), LocalDateTime.now().minusDays(1));
-        Page<ItemRequest> itemRequestPage = new PageImpl<>(List.of(itemRequest1, itemRequest2));
+        Slice<ItemRequest> itemRequestSlice = new SliceImpl<>(List.of(itemRequest1, itemRequest2));
         int from = 0;
         int size = 20;
         final String sortBy = "created";
         final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.DESC, sortBy);
-        when(itemRequestRepository.findByRequestorIdNot(userId, pageRequestParams.getPageRequest())).thenReturn(itemRequestPage);
+        when(itemRequestRepository.findByRequestorIdNot(userId, pageRequestParams.getPageRequest())).thenReturn(itemRequestSlice);
         Item item1 = items.get(0);
         Item item2 = items.get(1);
         Item item3 = items.get(2);
@@ -171,13 +173,13 @@ class ItemRequestServiceImplTest {
         User user = users.get(0);
         long userId = 1;
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        Page<ItemRequest> itemRequestPage = Page.empty();
+        when(userLookup.getUser(userId)).thenReturn(user);
+        Slice<ItemRequest> itemRequestSlice = new SliceImpl<>(List.of());
         int from = 0;
         int size = 20;
         final String sortBy = "created";
         final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.DESC, sortBy);
-        when(itemRequestRepository.findByRequestorIdNot(userId, pageRequestParams.getPageRequest())).thenReturn(itemRequestPage);
+        when(itemRequestRepository.findByRequestorIdNot(userId, pageRequestParams.getPageRequest())).thenReturn(itemRequestSlice);
 
         List<ItemRequestDto> itemRequestDtos = itemRequestService.getAllItemRequests(userId, pageRequestParams);
 
@@ -192,7 +194,8 @@ class ItemRequestServiceImplTest {
         final String sortBy = "created";
         final PageRequestParams pageRequestParams = new PageRequestParams(from, size, Sort.Direction.DESC, sortBy);
         long userId = 1;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userLookup.getUser(userId))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId)));
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -208,7 +211,7 @@ class ItemRequestServiceImplTest {
         User user = users.get(0);
         long userId = 1;
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         long itemRequestId = 1L;
         ItemRequest itemRequest = new ItemRequest(itemRequestId, "описание 1", user,
                 LocalDateTime.now().minusDays(2));
@@ -236,7 +239,7 @@ class ItemRequestServiceImplTest {
         User user = users.get(0);
         long userId = 1;
         user.setId(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
         long itemRequestId = 1L;
         when(itemRequestRepository.findById(itemRequestId)).thenReturn(Optional.empty());
 
@@ -252,7 +255,8 @@ class ItemRequestServiceImplTest {
     @DisplayName("Ошибка NotFoundException при получении запроса по ид, когда в БД нет такого запроса")
     void getItemRequestById_whenItemRequestNotPresent_thenThrowNotFoundException() {
         long userId = 1;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userLookup.getUser(userId))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId)));
         long itemRequestId = 1L;
 
         NotFoundException exception = assertThrows(
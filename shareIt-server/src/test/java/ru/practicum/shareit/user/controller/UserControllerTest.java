@@ -7,8 +7,12 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowResultDto;
+import ru.practicum.shareit.exception.BatchConflictException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -22,6 +26,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -52,6 +58,49 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value(userDto.getEmail()));
     }
 
+    @Test
+    @DisplayName("Пакетный импорт пользователей возвращает отчёт по строкам")
+    void createUsers_whenBatchImported_thenReturnedBatchResult() throws Exception {
+        List<UserDto> userDtos = List.of(new UserDto("name", "email@mail.ru"), new UserDto("", "blank@mail.ru"));
+        BatchResultDto result = new BatchResultDto(1, 1, List.of(BatchRowResultDto.created(0, 1),
+                BatchRowResultDto.rejected(1, "Имя пользователя не может быть пустым.")));
+        when(userService.addUsers(userDtos)).thenReturn(result);
+
+        mvc.perform(post("/users/batch")
+                        .content(mapper.writeValueAsString(userDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rows[0].id", is(1)))
+                .andExpect(jsonPath("$.rows[0].error").doesNotExist())
+                .andExpect(jsonPath("$.rows[1].index", is(1)))
+                .andExpect(jsonPath("$.rows[1].id").doesNotExist())
+                .andExpect(jsonPath("$.rows[1].error", is("Имя пользователя не может быть пустым.")));
+    }
+
+    @Test
+    @DisplayName("Статус 409 с отчётом по строкам, когда пакет нарушает ограничение БД")
+    void createUsers_whenBatchConflict_thenReturnedConflictWithBatchResult() throws Exception {
+        List<UserDto> userDtos = List.of(new UserDto("name", "email@mail.ru"));
+        BatchResultDto result = new BatchResultDto(0, 1, List.of(
+                BatchRowResultDto.rejected(0, "Пакет не сохранён: строки нарушают ограничения БД.")));
+        when(userService.addUsers(userDtos)).thenThrow(
+                new BatchConflictException("Пакет не сохранён: строки нарушают ограничения БД.", result));
+
+        mvc.perform(post("/users/batch")
+                        .content(mapper.writeValueAsString(userDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.created", is(0)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rows[0].error", is("Пакет не сохранён: строки нарушают ограничения БД.")));
+    }
+
     @Test
     @DisplayName("Успешное обновление пользователя")
     void updateUser_whenUserDtoIsValidAndIdIsPositive_thenReturnedUserDto() throws Exception {
@@ -87,6 +136,43 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value(userDto.getEmail()));
     }
 
+    @Test
+    @DisplayName("Повторное получение пользователя с тем же ETag возвращает 304 без тела")
+    void getUserById_whenIfNoneMatchEqualsETag_thenNotModified() throws Exception {
+        UserDto userDto = new UserDto("name", "email@mail.ru");
+        userDto.setId(1L);
+        when(userService.getUserById(Mockito.anyLong())).thenReturn(userDto);
+
+        String eTag = mvc.perform(get("/users/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/{id}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        UserDto updatedUserDto = new UserDto("new name", "email@mail.ru");
+        updatedUserDto.setId(1L);
+        when(userService.getUserById(Mockito.anyLong())).thenReturn(updatedUserDto);
+        mvc.perform(get("/users/{id}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("new name")));
+    }
+
+    @Test
+    @DisplayName("Список пользователей отдаётся без ETag")
+    void getAllUsers_whenRequested_thenNoETag() throws Exception {
+        when(userService.getAllUsers()).thenReturn(List.of());
+
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     @DisplayName("Успешное удаление пользователя по ид")
     void deleteUser_whenIdIsPositive_thenReturnedUserDto() throws Exception {
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private UserRepository userRepository;
+    private UserLookup userLookup;
+
+    @BeforeEach
+    void setUp() {
+        userLookup = new UserLookup(userRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Повторный запрос пользователя берётся из кэша без обращения к БД")
+    void getUser_whenCalledTwice_thenLoadedOnce() {
+        User user = new User(1L, "name", "name@mail.ru");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userLookup.getUser(1L);
+        User returnedUser = userLookup.getUser(1L);
+
+        assertEquals(user.getName(), returnedUser.getName());
+        verify(userRepository, times(1)).findById(1L);
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Ошибка NotFoundException, когда пользователя нет в БД, и отсутствие не кэшируется")
+    void getUser_whenUserNotPresent_thenThrowNotFoundExceptionEveryTime() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> userLookup.getUser(1L));
+        assertThrows(NotFoundException.class, () -> userLookup.getUser(1L));
+
+        assertEquals("Пользователь с ИД 1 отсутствует в БД.", exception.getMessage());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("После сброса пользователь заново читается из БД")
+    void invalidate_whenUserCached_thenReloaded() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(new User(1L, "name", "name@mail.ru")))
+                .thenReturn(Optional.of(new User(1L, "new name", "name@mail.ru")));
+        userLookup.getUser(1L);
+
+        userLookup.invalidate(1L);
+        User returnedUser = userLookup.getUser(1L);
+
+        assertEquals("new name", returnedUser.getName());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("Изменение возвращённого пользователя не меняет кэш")
+    void getUser_whenReturnedUserChanged_thenCacheUnchanged() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(new User(1L, "name", "name@mail.ru")));
+
+        userLookup.getUser(1L).setName("changed");
+
+        assertEquals("name", userLookup.getUser(1L).getName());
+    }
+}
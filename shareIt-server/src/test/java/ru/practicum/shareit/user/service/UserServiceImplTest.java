@@ -8,7 +8,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.batch.dto.BatchResultDto;
+import ru.practicum.shareit.batch.dto.BatchRowResultDto;
+import ru.practicum.shareit.cache.SecondLevelCacheInvalidator;
+import ru.practicum.shareit.exception.BatchConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndexer;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -16,12 +26,14 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -32,6 +44,16 @@ class UserServiceImplTest {
     private List<User> users = null;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserLookup userLookup;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchIndexer itemSearchIndexer;
+    @Mock
+    private SecondLevelCacheInvalidator secondLevelCacheInvalidator;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -62,7 +84,7 @@ class UserServiceImplTest {
         User oldUser = users.get(0);
         long oldUserId = 1;
         oldUser.setId(oldUserId);
-        when(userRepository.findById(oldUserId)).thenReturn(Optional.of(oldUser));
+        when(userLookup.getUser(oldUserId)).thenReturn(oldUser);
         UserDto userDto = new UserDto("new name", "newEmail@mail.ru");
         userDto.setId(oldUserId);
         User updatedUser = new User(userDto.getName(), userDto.getEmail());
@@ -72,6 +94,7 @@ class UserServiceImplTest {
         UserDto returnedUserDto = userService.updateUser(userDto);
 
         assertEquals(UserMapper.toUserDto(updatedUser), returnedUserDto);
+        verify(userLookup).invalidate(oldUserId);
     }
 
     @Test
@@ -80,7 +103,7 @@ class UserServiceImplTest {
         User oldUser = users.get(0);
         long oldUserId = 1;
         oldUser.setId(oldUserId);
-        when(userRepository.findById(oldUserId)).thenReturn(Optional.of(oldUser));
+        when(userLookup.getUser(oldUserId)).thenReturn(oldUser);
         UserDto userDto = new UserDto("new name", null);
         userDto.setId(oldUserId);
         User updatedUser = new User();
@@ -100,7 +123,7 @@ class UserServiceImplTest {
         User oldUser = users.get(0);
         long oldUserId = 1;
         oldUser.setId(oldUserId);
-        when(userRepository.findById(oldUserId)).thenReturn(Optional.of(oldUser));
+        when(userLookup.getUser(oldUserId)).thenReturn(oldUser);
         UserDto userDto = new UserDto(null, "newEmail@mail.ru");
         userDto.setId(oldUserId);
         User updatedUser = new User();
@@ -120,7 +143,7 @@ class UserServiceImplTest {
         User oldUser = users.get(0);
         long oldUserId = 1;
         oldUser.setId(oldUserId);
-        when(userRepository.findById(oldUserId)).thenReturn(Optional.of(oldUser));
+        when(userLookup.getUser(oldUserId)).thenReturn(oldUser);
         UserDto userDto = new UserDto("", "newEmail@mail.ru");
         userDto.setId(oldUserId);
         User updatedUser = new User();
@@ -138,7 +161,8 @@ class UserServiceImplTest {
     @DisplayName("Ошибка NotFoundException при обновлении пользователя, когда пользователя нет в БД")
     void updateUser_whenUserNotPresent_thenThrowNotFoundException() {
         long oldUserId = 1;
-        when(userRepository.findById(oldUserId)).thenReturn(Optional.empty());
+        when(userLookup.getUser(oldUserId))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", oldUserId)));
         UserDto userDto = new UserDto("new name", "newEmail@mail.ru");
         userDto.setId(oldUserId);
 
@@ -157,7 +181,7 @@ class UserServiceImplTest {
         User user = users.get(0);
         user.setId(userId);
         UserDto userDto = UserMapper.toUserDto(user);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userLookup.getUser(userId)).thenReturn(user);
 
         UserDto returnedUser = userService.getUserById(userId);
 
@@ -168,7 +192,8 @@ class UserServiceImplTest {
     @DisplayName("Ошибка NotFoundException, когда пользователь не найден в БД.")
     void getUserById_whenUserNotFound_thenThrowNotFoundException() {
         long userId = 1;
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userLookup.getUser(userId))
+                .thenThrow(new NotFoundException(String.format("Пользователь с ИД %d отсутствует в БД.", userId)));
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -181,10 +206,33 @@ class UserServiceImplTest {
     @DisplayName("Удаление пользователя по ид")
     void deleteUserTest() {
         long oldUserId = 1;
+        when(itemRepository.findIdsByOwnerIdOrRequestorId(oldUserId)).thenReturn(List.of(3L, 4L));
+        when(itemRequestRepository.findIdsByRequestorId(oldUserId)).thenReturn(List.of(5L));
 
         userService.deleteUser(oldUserId);
 
         verify(userRepository, times(1)).deleteById(oldUserId);
+        verify(userLookup).invalidate(oldUserId);
+        verify(itemSearchIndexer).remove(List.of(3L, 4L));
+        verify(itemRepository, never()).rebuildWhereInconsistentByIdIn(any(), any());
+        verify(secondLevelCacheInvalidator).afterCascadeDelete(Map.of(Item.class, Set.of(3L, 4L),
+                ItemRequest.class, List.of(5L)));
+    }
+
+    @Test
+    @DisplayName("Удаление бронирующего пересчитывает вещи, ссылавшиеся на его бронирования")
+    void deleteUser_whenBookerOfLastOrNextBooking_thenItemsRebuilt() {
+        long bookerId = 1;
+        when(itemRepository.findIdsByOwnerIdOrRequestorId(bookerId)).thenReturn(List.of());
+        when(itemRequestRepository.findIdsByRequestorId(bookerId)).thenReturn(List.of());
+        when(itemRepository.findIdsByLastOrNextBookingBookerId(bookerId)).thenReturn(List.of(7L));
+
+        userService.deleteUser(bookerId);
+
+        verify(userRepository).flush();
+        verify(itemRepository).rebuildWhereInconsistentByIdIn(any(), eq(List.of(7L)));
+        verify(secondLevelCacheInvalidator).afterCascadeDelete(Map.of(Item.class, Set.of(7L),
+                ItemRequest.class, List.of()));
     }
 
     @Test
@@ -217,6 +265,78 @@ class UserServiceImplTest {
         assertTrue(allUsers.isEmpty());
     }
 
+    @Test
+    @DisplayName("Пакетный импорт пользователей: валидные строки сохраняются, невалидные попадают в отчёт")
+    void addUsers_whenSomeRowsNotValid_thenValidRowsSavedAndErrorsReported() {
+        List<UserDto> userDtos = List.of(
+                new UserDto("name1", "name1@mail.ru"),
+                new UserDto(" ", "blank@mail.ru"),
+                new UserDto("name3", "taken@mail.ru"),
+                new UserDto("name4", "not-an-email"),
+                new UserDto("name5", "name1@mail.ru"),
+                new UserDto("name6", "name6@mail.ru"));
+        when(userRepository.findEmailsByEmailIn(any())).thenReturn(Set.of("taken@mail.ru"));
+        when(userRepository.saveAllAndFlush(any())).thenAnswer(invocation -> {
+            List<User> savedUsers = new ArrayList<>();
+            long id = 10;
+            for (User user : invocation.<List<User>>getArgument(0)) {
+                user.setId(id++);
+                savedUsers.add(user);
+            }
+            return savedUsers;
+        });
+
+        BatchResultDto result = userService.addUsers(userDtos);
+
+        assertEquals(2, result.getCreated());
+        assertEquals(4, result.getRejected());
+        assertEquals(BatchRowResultDto.created(0, 10), result.getRows().get(0));
+        assertEquals(BatchRowResultDto.rejected(1, "Имя пользователя не может быть пустым."), result.getRows().get(1));
+        assertEquals(BatchRowResultDto.rejected(2, "Пользователь с email taken@mail.ru уже существует."),
+                result.getRows().get(2));
+        assertEquals(BatchRowResultDto.rejected(3, "Email not-an-email задан неверно."), result.getRows().get(3));
+        assertEquals(BatchRowResultDto.rejected(4, "Пользователь с email name1@mail.ru уже существует."),
+                result.getRows().get(4));
+        assertEquals(BatchRowResultDto.created(5, 11), result.getRows().get(5));
+    }
+
+    @Test
+    @DisplayName("Пакетный импорт пользователей: пустая строка отклоняется по своему индексу")
+    void addUsers_whenRowNull_thenRowRejected() {
+        List<UserDto> userDtos = new ArrayList<>();
+        userDtos.add(null);
+        userDtos.add(new UserDto("name1", "name1@mail.ru"));
+        when(userRepository.findEmailsByEmailIn(Set.of("name1@mail.ru"))).thenReturn(Set.of());
+        when(userRepository.saveAllAndFlush(any())).thenAnswer(invocation -> {
+            List<User> savedUsers = invocation.getArgument(0);
+            savedUsers.get(0).setId(10L);
+            return savedUsers;
+        });
+
+        BatchResultDto result = userService.addUsers(userDtos);
+
+        assertEquals(1, result.getCreated());
+        assertEquals(BatchRowResultDto.rejected(0, "Строка пакета не может быть пустой."), result.getRows().get(0));
+        assertEquals(BatchRowResultDto.created(1, 10), result.getRows().get(1));
+    }
+
+    @Test
+    @DisplayName("Ошибка BatchConflictException с отчётом, когда сохранение пакета нарушает ограничение БД")
+    void addUsers_whenConstraintViolated_thenBatchConflict() {
+        List<UserDto> userDtos = List.of(new UserDto("name1", "name1@mail.ru"), new UserDto(" ", "blank@mail.ru"));
+        when(userRepository.findEmailsByEmailIn(any())).thenReturn(Set.of());
+        when(userRepository.saveAllAndFlush(any())).thenThrow(new DataIntegrityViolationException("uq_user_email"));
+
+        BatchConflictException e = assertThrows(BatchConflictException.class, () -> userService.addUsers(userDtos));
+
+        assertEquals(0, e.getResult().getCreated());
+        assertEquals(2, e.getResult().getRejected());
+        assertEquals(BatchRowResultDto.rejected(0, "Пакет не сохранён: строки нарушают ограничения БД."),
+                e.getResult().getRows().get(0));
+        assertEquals(BatchRowResultDto.rejected(1, "Имя пользователя не может быть пустым."),
+                e.getResult().getRows().get(1));
+    }
+
     private List<User> usersBuilder() {
         List<User> users = new ArrayList<>();
         for (int i = 1; i < 11; i++) {